@@ -0,0 +1,138 @@
+package me.tatarka.bindingcollectionadapter2.benchmark;
+
+import android.support.v7.util.DiffUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import me.tatarka.bindingcollectionadapter2.collections.DiffObservableList;
+
+/**
+ * Measures the cost of updating a {@link DiffObservableList} by list size and by the number of
+ * edits between the old and new list, both with {@link DiffUtil} and with a {@link
+ * DiffObservableList.KeyedCallback}. Each update switches between the two lists, so every call
+ * diffs the same number of edits.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiffObservableListBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    @Param({"0", "10", "100"})
+    public int edits;
+
+    private List<Item> oldItems;
+    private List<Item> newItems;
+    private DiffObservableList<Item> diffList;
+    private DiffObservableList<Item> keyedList;
+    private boolean toNew;
+
+    @Setup
+    public void setup() {
+        oldItems = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            oldItems.add(new Item(i, 0));
+        }
+        newItems = edit(oldItems, Math.min(edits, size), new Random(42));
+        diffList = new DiffObservableList<>(new ItemCallback());
+        diffList.update(oldItems);
+        keyedList = new DiffObservableList<>(new KeyedItemCallback());
+        keyedList.update(oldItems);
+    }
+
+    /**
+     * Returns a copy of the items with the given number of random content changes, inserts,
+     * removes and moves.
+     */
+    private static List<Item> edit(List<Item> items, int edits, Random random) {
+        List<Item> result = new ArrayList<>(items);
+        int nextId = items.size();
+        for (int i = 0; i < edits; i++) {
+            int position = random.nextInt(result.size());
+            switch (i % 4) {
+                case 0:
+                    Item item = result.get(position);
+                    result.set(position, new Item(item.id, item.content + 1));
+                    break;
+                case 1:
+                    result.add(position, new Item(nextId++, 0));
+                    break;
+                case 2:
+                    result.remove(position);
+                    break;
+                default:
+                    result.add(random.nextInt(result.size()), result.remove(position));
+                    break;
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public DiffUtil.DiffResult calculateDiff() {
+        return diffList.calculateDiff(newItems);
+    }
+
+    @Benchmark
+    public int update() {
+        toNew = !toNew;
+        diffList.update(toNew ? newItems : oldItems);
+        return diffList.size();
+    }
+
+    @Benchmark
+    public int keyedUpdate() {
+        toNew = !toNew;
+        keyedList.update(toNew ? newItems : oldItems);
+        return keyedList.size();
+    }
+
+    static final class Item {
+        final int id;
+        final int content;
+
+        Item(int id, int content) {
+            this.id = id;
+            this.content = content;
+        }
+    }
+
+    static class ItemCallback implements DiffObservableList.Callback<Item> {
+        @Override
+        public boolean areItemsTheSame(Item oldItem, Item newItem) {
+            return oldItem.id == newItem.id;
+        }
+
+        @Override
+        public boolean areContentsTheSame(Item oldItem, Item newItem) {
+            return oldItem.content == newItem.content;
+        }
+    }
+
+    static class KeyedItemCallback extends ItemCallback implements DiffObservableList.KeyedCallback<Item> {
+        @Override
+        public Object getKey(Item item) {
+            return item.id;
+        }
+    }
+}
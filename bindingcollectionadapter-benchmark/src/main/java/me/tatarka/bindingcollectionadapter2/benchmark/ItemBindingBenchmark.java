@@ -0,0 +1,86 @@
+package me.tatarka.bindingcollectionadapter2.benchmark;
+
+import android.databinding.ViewDataBinding;
+import android.view.View;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import me.tatarka.bindingcollectionadapter2.ItemBinding;
+import me.tatarka.bindingcollectionadapter2.ResolvedBinding;
+
+/**
+ * Measures resolving an {@link ItemBinding} and binding an item with {@link
+ * ResolvedBinding#bind(ViewDataBinding, Object)} by the number of extras, with and without {@link
+ * ItemBinding#applyExtrasOnce(boolean)}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemBindingBenchmark {
+    private static final int ITEM_VARIABLE = 1;
+
+    @Param({"0", "1", "4"})
+    public int extraCount;
+
+    @Param({"false", "true"})
+    public boolean applyExtrasOnce;
+
+    private ItemBinding<String> itemBinding;
+    private ResolvedBinding resolvedBinding;
+    private CountingBinding binding;
+    private final String item = "item";
+
+    @Setup
+    public void setup() {
+        itemBinding = ItemBinding.<String>of(ITEM_VARIABLE, 1).applyExtrasOnce(applyExtrasOnce);
+        for (int i = 0; i < extraCount; i++) {
+            itemBinding.bindExtra(ITEM_VARIABLE + 1 + i, "extra" + i);
+        }
+        resolvedBinding = itemBinding.resolve(0, item);
+        binding = new CountingBinding();
+    }
+
+    @Benchmark
+    public int resolvedBindingBind() {
+        resolvedBinding.bind(binding, item);
+        return binding.count;
+    }
+
+    @Benchmark
+    public ResolvedBinding resolve() {
+        return itemBinding.resolve(0, item);
+    }
+
+    /**
+     * A binding that accepts every variable, the generated ones only store the value and schedule
+     * a rebind.
+     */
+    static class CountingBinding extends ViewDataBinding {
+        int count;
+
+        CountingBinding() {
+            super(new View());
+        }
+
+        @Override
+        public boolean setVariable(int variableId, Object value) {
+            count++;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package me.tatarka.bindingcollectionadapter2.benchmark;
+
+import android.databinding.ObservableArrayList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import me.tatarka.bindingcollectionadapter2.collections.MergeObservableList;
+
+/**
+ * Measures how {@link MergeObservableList} scales with the number of sections for the same total
+ * number of items. {@code get()} should grow with the log of the section count and {@code size()}
+ * shouldn't grow at all.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MergeObservableListBenchmark {
+    private static final int ITEM_COUNT = 10000;
+    private static final int LOOKUP_COUNT = 1024;
+
+    @Param({"1", "10", "100", "1000"})
+    public int sectionCount;
+
+    private MergeObservableList<Integer> list;
+    private ObservableArrayList<Integer> lastSection;
+    private final int[] positions = new int[LOOKUP_COUNT];
+    private int next;
+
+    @Setup
+    public void setup() {
+        list = new MergeObservableList<>();
+        int perSection = ITEM_COUNT / sectionCount;
+        for (int i = 0; i < sectionCount; i++) {
+            ObservableArrayList<Integer> section = new ObservableArrayList<>();
+            for (int j = 0; j < perSection; j++) {
+                section.add(i * perSection + j);
+            }
+            list.insertList(section);
+            lastSection = section;
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < LOOKUP_COUNT; i++) {
+            positions[i] = random.nextInt(list.size());
+        }
+    }
+
+    @Benchmark
+    public Integer get() {
+        next = (next + 1) & (LOOKUP_COUNT - 1);
+        return list.get(positions[next]);
+    }
+
+    @Benchmark
+    public int size() {
+        return list.size();
+    }
+
+    @Benchmark
+    public int iterate() {
+        int sum = 0;
+        for (int i = 0, size = list.size(); i < size; i++) {
+            sum += list.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     * Inserts into and removes from the last section, which updates the section offsets through
+     * the list change callbacks.
+     */
+    @Benchmark
+    public int insertAndRemoveInSection() {
+        lastSection.add(0, -1);
+        lastSection.remove(0);
+        return list.size();
+    }
+}
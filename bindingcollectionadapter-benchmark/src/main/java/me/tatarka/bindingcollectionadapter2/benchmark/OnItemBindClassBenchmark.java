@@ -0,0 +1,114 @@
+package me.tatarka.bindingcollectionadapter2.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import me.tatarka.bindingcollectionadapter2.ItemBinding;
+import me.tatarka.bindingcollectionadapter2.itembindings.OnItemBindClass;
+
+/**
+ * Measures looking up the layout of an item in an {@link OnItemBindClass} by the number of mapped
+ * classes, cycling through items of every mapped class.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OnItemBindClassBenchmark {
+    private static final Class<?>[] CLASSES = {
+            Item0.class, Item1.class, Item2.class, Item3.class,
+            Item4.class, Item5.class, Item6.class, Item7.class,
+            Item8.class, Item9.class, Item10.class, Item11.class,
+            Item12.class, Item13.class, Item14.class, Item15.class,
+    };
+    private static final Object[] ITEMS = {
+            new Item0(), new Item1(), new Item2(), new Item3(),
+            new Item4(), new Item5(), new Item6(), new Item7(),
+            new Item8(), new Item9(), new Item10(), new Item11(),
+            new Item12(), new Item13(), new Item14(), new Item15(),
+    };
+
+    @Param({"1", "4", "16"})
+    public int classCount;
+
+    private OnItemBindClass<Object> onItemBindClass;
+    private ItemBinding<Object> itemBinding;
+    private int next;
+
+    @Setup
+    public void setup() {
+        onItemBindClass = new OnItemBindClass<>();
+        for (int i = 0; i < classCount; i++) {
+            onItemBindClass.map(CLASSES[i], 1, i + 1);
+        }
+        itemBinding = ItemBinding.of(onItemBindClass);
+    }
+
+    @Benchmark
+    public int onItemBind() {
+        next = next + 1 == classCount ? 0 : next + 1;
+        onItemBindClass.onItemBind(itemBinding, next, ITEMS[next]);
+        return itemBinding.layoutRes();
+    }
+
+    static class Item0 {
+    }
+
+    static class Item1 {
+    }
+
+    static class Item2 {
+    }
+
+    static class Item3 {
+    }
+
+    static class Item4 {
+    }
+
+    static class Item5 {
+    }
+
+    static class Item6 {
+    }
+
+    static class Item7 {
+    }
+
+    static class Item8 {
+    }
+
+    static class Item9 {
+    }
+
+    static class Item10 {
+    }
+
+    static class Item11 {
+    }
+
+    static class Item12 {
+    }
+
+    static class Item13 {
+    }
+
+    static class Item14 {
+    }
+
+    static class Item15 {
+    }
+}
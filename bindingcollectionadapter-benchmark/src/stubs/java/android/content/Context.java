@@ -0,0 +1,11 @@
+package android.content;
+
+import android.content.res.Resources;
+
+/**
+ * JVM stand-in for the Android class of the same name.
+ */
+public abstract class Context {
+
+    public abstract Resources getResources();
+}
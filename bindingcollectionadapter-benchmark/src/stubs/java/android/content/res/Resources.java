@@ -0,0 +1,11 @@
+package android.content.res;
+
+/**
+ * JVM stand-in for the Android class of the same name.
+ */
+public class Resources {
+
+    public String getResourceName(int resid) {
+        return String.valueOf(resid);
+    }
+}
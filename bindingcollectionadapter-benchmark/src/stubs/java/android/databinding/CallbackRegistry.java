@@ -0,0 +1,49 @@
+package android.databinding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JVM stand-in for the data binding library class of the same name. Callbacks added or removed
+ * while notifying take effect on the next notification.
+ */
+public class CallbackRegistry<C, T, A> implements Cloneable {
+    private List<C> callbacks = new ArrayList<>();
+    private final NotifierCallback<C, T, A> notifier;
+
+    public CallbackRegistry(NotifierCallback<C, T, A> notifier) {
+        this.notifier = notifier;
+    }
+
+    public synchronized void add(C callback) {
+        if (callback == null) {
+            throw new IllegalArgumentException("callback cannot be null");
+        }
+        if (!callbacks.contains(callback)) {
+            List<C> newCallbacks = new ArrayList<>(callbacks);
+            newCallbacks.add(callback);
+            callbacks = newCallbacks;
+        }
+    }
+
+    public synchronized void remove(C callback) {
+        List<C> newCallbacks = new ArrayList<>(callbacks);
+        newCallbacks.remove(callback);
+        callbacks = newCallbacks;
+    }
+
+    public void notifyCallbacks(T sender, int arg, A arg2) {
+        List<C> callbacks;
+        synchronized (this) {
+            callbacks = this.callbacks;
+        }
+        for (int i = 0; i < callbacks.size(); i++) {
+            notifier.onNotificationCallback(callbacks.get(i), sender, arg, arg2);
+        }
+    }
+
+    public abstract static class NotifierCallback<C, T, A> {
+
+        public abstract void onNotificationCallback(C callback, T sender, int arg, A arg2);
+    }
+}
@@ -0,0 +1,28 @@
+package android.databinding;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * JVM stand-in for the data binding library class of the same name. There are no layouts to
+ * inflate on the JVM.
+ */
+public class DataBindingUtil {
+
+    public static <T extends ViewDataBinding> T inflate(LayoutInflater inflater, int layoutId, ViewGroup parent, boolean attachToParent) {
+        throw new UnsupportedOperationException();
+    }
+
+    public static <T extends ViewDataBinding> T bind(View root) {
+        throw new UnsupportedOperationException();
+    }
+
+    public static <T extends ViewDataBinding> T getBinding(View view) {
+        return null;
+    }
+
+    public static String convertBrIdToString(int id) {
+        return String.valueOf(id);
+    }
+}
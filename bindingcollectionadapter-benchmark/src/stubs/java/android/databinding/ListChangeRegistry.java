@@ -0,0 +1,72 @@
+package android.databinding;
+
+/**
+ * JVM stand-in for the data binding library class of the same name.
+ */
+public class ListChangeRegistry extends CallbackRegistry<ObservableList.OnListChangedCallback, ObservableList, ListChangeRegistry.ListChanges> {
+    private static final int ALL = 0;
+    private static final int CHANGED = 1;
+    private static final int INSERTED = 2;
+    private static final int MOVED = 3;
+    private static final int REMOVED = 4;
+
+    private static final NotifierCallback<ObservableList.OnListChangedCallback, ObservableList, ListChanges> NOTIFIER_CALLBACK = new NotifierCallback<ObservableList.OnListChangedCallback, ObservableList, ListChanges>() {
+        @SuppressWarnings("unchecked")
+        @Override
+        public void onNotificationCallback(ObservableList.OnListChangedCallback callback, ObservableList sender, int notificationType, ListChanges listChanges) {
+            switch (notificationType) {
+                case CHANGED:
+                    callback.onItemRangeChanged(sender, listChanges.start, listChanges.count);
+                    break;
+                case INSERTED:
+                    callback.onItemRangeInserted(sender, listChanges.start, listChanges.count);
+                    break;
+                case MOVED:
+                    callback.onItemRangeMoved(sender, listChanges.start, listChanges.to, listChanges.count);
+                    break;
+                case REMOVED:
+                    callback.onItemRangeRemoved(sender, listChanges.start, listChanges.count);
+                    break;
+                default:
+                    callback.onChanged(sender);
+                    break;
+            }
+        }
+    };
+
+    public ListChangeRegistry() {
+        super(NOTIFIER_CALLBACK);
+    }
+
+    public void notifyChanged(ObservableList list) {
+        notifyCallbacks(list, ALL, null);
+    }
+
+    public void notifyChanged(ObservableList list, int start, int count) {
+        notifyCallbacks(list, CHANGED, new ListChanges(start, 0, count));
+    }
+
+    public void notifyInserted(ObservableList list, int start, int count) {
+        notifyCallbacks(list, INSERTED, new ListChanges(start, 0, count));
+    }
+
+    public void notifyMoved(ObservableList list, int from, int to, int count) {
+        notifyCallbacks(list, MOVED, new ListChanges(from, to, count));
+    }
+
+    public void notifyRemoved(ObservableList list, int start, int count) {
+        notifyCallbacks(list, REMOVED, new ListChanges(start, 0, count));
+    }
+
+    static class ListChanges {
+        final int start;
+        final int to;
+        final int count;
+
+        ListChanges(int start, int to, int count) {
+            this.start = start;
+            this.to = to;
+            this.count = count;
+        }
+    }
+}
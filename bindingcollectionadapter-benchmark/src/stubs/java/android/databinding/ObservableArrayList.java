@@ -0,0 +1,77 @@
+package android.databinding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * JVM stand-in for the data binding library class of the same name.
+ */
+public class ObservableArrayList<T> extends ArrayList<T> implements ObservableList<T> {
+    private final transient ListChangeRegistry listeners = new ListChangeRegistry();
+
+    @Override
+    public void addOnListChangedCallback(OnListChangedCallback listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeOnListChangedCallback(OnListChangedCallback listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public boolean add(T object) {
+        super.add(object);
+        listeners.notifyInserted(this, size() - 1, 1);
+        return true;
+    }
+
+    @Override
+    public void add(int index, T object) {
+        super.add(index, object);
+        listeners.notifyInserted(this, index, 1);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> collection) {
+        int oldSize = size();
+        boolean added = super.addAll(collection);
+        if (added) {
+            listeners.notifyInserted(this, oldSize, size() - oldSize);
+        }
+        return added;
+    }
+
+    @Override
+    public void clear() {
+        int oldSize = size();
+        super.clear();
+        if (oldSize != 0) {
+            listeners.notifyRemoved(this, 0, oldSize);
+        }
+    }
+
+    @Override
+    public T remove(int index) {
+        T value = super.remove(index);
+        listeners.notifyRemoved(this, index, 1);
+        return value;
+    }
+
+    @Override
+    public boolean remove(Object object) {
+        int index = indexOf(object);
+        if (index >= 0) {
+            remove(index);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public T set(int index, T object) {
+        T value = super.set(index, object);
+        listeners.notifyChanged(this, index, 1);
+        return value;
+    }
+}
@@ -0,0 +1,26 @@
+package android.databinding;
+
+import java.util.List;
+
+/**
+ * JVM stand-in for the data binding library class of the same name.
+ */
+public interface ObservableList<T> extends List<T> {
+
+    void addOnListChangedCallback(OnListChangedCallback<? extends ObservableList<T>> callback);
+
+    void removeOnListChangedCallback(OnListChangedCallback<? extends ObservableList<T>> callback);
+
+    abstract class OnListChangedCallback<T extends ObservableList> {
+
+        public abstract void onChanged(T sender);
+
+        public abstract void onItemRangeChanged(T sender, int positionStart, int itemCount);
+
+        public abstract void onItemRangeInserted(T sender, int positionStart, int itemCount);
+
+        public abstract void onItemRangeMoved(T sender, int fromPosition, int toPosition, int itemCount);
+
+        public abstract void onItemRangeRemoved(T sender, int positionStart, int itemCount);
+    }
+}
@@ -0,0 +1,27 @@
+package android.databinding;
+
+import android.view.View;
+
+/**
+ * JVM stand-in for the data binding library class of the same name.
+ */
+public abstract class ViewDataBinding {
+    private final View root;
+
+    protected ViewDataBinding(View root) {
+        this.root = root;
+    }
+
+    public View getRoot() {
+        return root;
+    }
+
+    public abstract boolean setVariable(int variableId, Object value);
+
+    public void executePendingBindings() {
+    }
+
+    public boolean hasPendingBindings() {
+        return false;
+    }
+}
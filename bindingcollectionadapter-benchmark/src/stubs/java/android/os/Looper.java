@@ -0,0 +1,26 @@
+package android.os;
+
+/**
+ * JVM stand-in for the Android class of the same name. The thread that first asks for the main
+ * looper is the main thread.
+ */
+public final class Looper {
+    private static Looper mainLooper;
+
+    private final Thread thread;
+
+    private Looper(Thread thread) {
+        this.thread = thread;
+    }
+
+    public static synchronized Looper getMainLooper() {
+        if (mainLooper == null) {
+            mainLooper = new Looper(Thread.currentThread());
+        }
+        return mainLooper;
+    }
+
+    public Thread getThread() {
+        return thread;
+    }
+}
@@ -0,0 +1,34 @@
+package android.view;
+
+import android.content.Context;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JVM stand-in for the Android class of the same name, only holds tags.
+ */
+public class View {
+    private final Map<Integer, Object> keyedTags = new HashMap<>();
+    private Object tag;
+
+    public Context getContext() {
+        return null;
+    }
+
+    public Object getTag() {
+        return tag;
+    }
+
+    public void setTag(Object tag) {
+        this.tag = tag;
+    }
+
+    public Object getTag(int key) {
+        return keyedTags.get(key);
+    }
+
+    public void setTag(int key, Object tag) {
+        keyedTags.put(key, tag);
+    }
+}
@@ -0,0 +1,7 @@
+package android.view;
+
+/**
+ * JVM stand-in for the Android class of the same name.
+ */
+public abstract class ViewGroup extends View {
+}
@@ -0,0 +1,7 @@
+package android.widget;
+
+/**
+ * JVM stand-in for the Android interface of the same name.
+ */
+public interface Adapter {
+}
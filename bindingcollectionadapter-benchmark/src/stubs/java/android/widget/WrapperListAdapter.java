@@ -0,0 +1,9 @@
+package android.widget;
+
+/**
+ * JVM stand-in for the Android interface of the same name.
+ */
+public interface WrapperListAdapter extends Adapter {
+
+    Adapter getWrappedAdapter();
+}
@@ -0,0 +1,13 @@
+package me.tatarka.bindingcollectionadapter2;
+
+/**
+ * JVM stand-in for the resources the Android build generates for the library.
+ */
+public final class R {
+
+    public static final class id {
+        public static final int bindingcollectionadapter_layout = 0x7f010001;
+        public static final int bindingcollectionadapter_extras = 0x7f010002;
+        public static final int bindingcollectionadapter_bound_item = 0x7f010003;
+    }
+}
@@ -0,0 +1,311 @@
+package me.tatarka.bindingcollectionadapter2.compiler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates an {@code ItemLayouts} class for all types annotated with {@code @ItemLayout}. It holds
+ * an {@code OnItemBind} that picks the variable id and layout with a chain of {@code instanceof}
+ * checks, most specific type first, and the number of distinct layouts as {@code
+ * ITEM_TYPE_COUNT}.
+ * <p>
+ * The class is generated in the package all annotated types have in common, this can be changed
+ * with the {@code bindingcollectionadapter.itemLayoutsClass} option giving the fully qualified name
+ * of the class to generate. The option is required if they have no package in common.
+ * <p>
+ * The variable and layout may reference constants generated by other processors in the same build,
+ * like {@code BR.item}. The class is then generated in a later round, once they have resolved.
+ */
+public class ItemLayoutProcessor extends AbstractProcessor {
+    static final String ITEM_LAYOUT = "me.tatarka.bindingcollectionadapter2.itembindings.ItemLayout";
+    static final String OPTION_CLASS_NAME = "bindingcollectionadapter.itemLayoutsClass";
+    private static final String DEFAULT_SIMPLE_NAME = "ItemLayouts";
+
+    // Annotated types seen so far, their values may reference constants generated in a later round.
+    private final Set<String> pendingTypes = new LinkedHashSet<>();
+    private boolean generated;
+    private boolean failed;
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(ITEM_LAYOUT);
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return Collections.singleton(OPTION_CLASS_NAME);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement annotation = processingEnv.getElementUtils().getTypeElement(ITEM_LAYOUT);
+        if (annotation == null) {
+            return false;
+        }
+        Set<? extends Element> elements = roundEnv.getElementsAnnotatedWith(annotation);
+        if (!elements.isEmpty() && generated) {
+            error(elements.iterator().next(), "@ItemLayout on types generated by other annotation processors isn't supported");
+            return true;
+        }
+        for (Element element : elements) {
+            if (checkType(element)) {
+                pendingTypes.add(((TypeElement) element).getQualifiedName().toString());
+            }
+        }
+        if (generated || failed || pendingTypes.isEmpty()) {
+            return !elements.isEmpty();
+        }
+        List<Mapping> mappings = new ArrayList<>();
+        List<TypeElement> unresolvedTypes = new ArrayList<>();
+        for (String name : pendingTypes) {
+            TypeElement type = processingEnv.getElementUtils().getTypeElement(name);
+            Mapping mapping = mapping(type, annotation);
+            if (mapping != null) {
+                mappings.add(mapping);
+            } else {
+                unresolvedTypes.add(type);
+            }
+        }
+        if (failed) {
+            return true;
+        }
+        if (!unresolvedTypes.isEmpty()) {
+            // Values referencing a class that isn't generated yet (ex: BR) resolve in a later round.
+            if (roundEnv.processingOver()) {
+                for (TypeElement type : unresolvedTypes) {
+                    error(type, "@ItemLayout variable and layout must be constant ints");
+                }
+            }
+            return !elements.isEmpty();
+        }
+        sortMostSpecificFirst(mappings);
+        String className = processingEnv.getOptions().get(OPTION_CLASS_NAME);
+        if (className == null) {
+            String packagePrefix = commonPackage(mappings);
+            if (packagePrefix == null) {
+                error(mappings.get(0).type, "@ItemLayout types have no package in common, set the "
+                        + OPTION_CLASS_NAME + " option to the fully qualified name of the class to generate");
+                return true;
+            }
+            className = packagePrefix + DEFAULT_SIMPLE_NAME;
+        }
+        try {
+            write(className, mappings);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write " + className + ": " + e.getMessage());
+        }
+        generated = true;
+        return !elements.isEmpty();
+    }
+
+    private boolean checkType(Element element) {
+        if (element.getKind() != ElementKind.CLASS && element.getKind() != ElementKind.INTERFACE) {
+            error(element, "@ItemLayout can only be used on classes and interfaces");
+            return false;
+        }
+        for (Element e = element; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                error(element, "@ItemLayout types must not be private");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the mapping for the given type, or null if its values aren't resolved yet or are
+     * invalid.
+     */
+    private Mapping mapping(TypeElement type, TypeElement annotation) {
+        int variable = 0;
+        int layout = 0;
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            if (!processingEnv.getTypeUtils().isSameType(mirror.getAnnotationType(), annotation.asType())) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                String name = entry.getKey().getSimpleName().toString();
+                Object value = entry.getValue().getValue();
+                if (!(value instanceof Integer)) {
+                    return null;
+                }
+                if (name.equals("variable")) {
+                    variable = (Integer) value;
+                } else if (name.equals("layout")) {
+                    layout = (Integer) value;
+                }
+            }
+        }
+        if (layout == 0) {
+            error(type, "@ItemLayout layout must not be 0");
+            return null;
+        }
+        return new Mapping(type, variable, layout);
+    }
+
+    /**
+     * Sorts the mappings so that a subtype always comes before its supertypes. A type is a subtype
+     * of all annotated supertypes of its supertypes too, so having more annotated supertypes means
+     * being more specific.
+     */
+    private void sortMostSpecificFirst(List<Mapping> mappings) {
+        Types types = processingEnv.getTypeUtils();
+        final Map<Mapping, Integer> supertypeCounts = new HashMap<>();
+        for (Mapping mapping : mappings) {
+            TypeMirror type = types.erasure(mapping.type.asType());
+            int count = 0;
+            for (Mapping other : mappings) {
+                if (other != mapping && types.isAssignable(type, types.erasure(other.type.asType()))) {
+                    count++;
+                }
+            }
+            supertypeCounts.put(mapping, count);
+        }
+        Collections.sort(mappings, new Comparator<Mapping>() {
+            @Override
+            public int compare(Mapping a, Mapping b) {
+                int result = supertypeCounts.get(b).compareTo(supertypeCounts.get(a));
+                return result != 0 ? result : a.name().compareTo(b.name());
+            }
+        });
+    }
+
+    /**
+     * Returns the package all mappings have in common followed by a '.', the empty string if they
+     * are all in the unnamed package, or null if they have none in common.
+     */
+    private String commonPackage(List<Mapping> mappings) {
+        String common = null;
+        for (Mapping mapping : mappings) {
+            PackageElement pkg = processingEnv.getElementUtils().getPackageOf(mapping.type);
+            String name = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+            if (common == null) {
+                common = name;
+            } else {
+                while (!(name.equals(common) || name.startsWith(common + "."))) {
+                    int end = common.lastIndexOf('.');
+                    if (end < 0) {
+                        return null;
+                    }
+                    common = common.substring(0, end);
+                }
+            }
+        }
+        return common.isEmpty() ? "" : common + ".";
+    }
+
+    private void write(String className, List<Mapping> mappings) throws IOException {
+        int dot = className.lastIndexOf('.');
+        String packageName = dot < 0 ? "" : className.substring(0, dot);
+        String simpleName = className.substring(dot + 1);
+        Set<Integer> layouts = new LinkedHashSet<>();
+        for (Mapping mapping : mappings) {
+            layouts.add(mapping.layout);
+        }
+
+        StringBuilder out = new StringBuilder();
+        out.append("// Generated by bindingcollectionadapter-compiler, do not edit.\n");
+        if (!packageName.isEmpty()) {
+            out.append("package ").append(packageName).append(";\n\n");
+        }
+        out.append("import me.tatarka.bindingcollectionadapter2.ItemBinding;\n");
+        out.append("import me.tatarka.bindingcollectionadapter2.OnItemBind;\n\n");
+        out.append("/**\n");
+        out.append(" * Binds items based on the types annotated with {@code @ItemLayout}.\n");
+        out.append(" */\n");
+        out.append("public final class ").append(simpleName).append(" implements OnItemBind<Object> {\n");
+        out.append("    /**\n");
+        out.append("     * The number of distinct layouts, for {@code app:itemTypeCount} of an {@code AdapterView}.\n");
+        out.append("     */\n");
+        out.append("    public static final int ITEM_TYPE_COUNT = ").append(layouts.size()).append(";\n\n");
+        out.append("    private static final ").append(simpleName).append(" INSTANCE = new ").append(simpleName).append("();\n\n");
+        out.append("    private ").append(simpleName).append("() {\n");
+        out.append("    }\n\n");
+        out.append("    /**\n");
+        out.append("     * Returns the {@link OnItemBind} for the annotated types.\n");
+        out.append("     */\n");
+        out.append("    @SuppressWarnings(\"unchecked\")\n");
+        out.append("    public static <T> OnItemBind<T> onItemBind() {\n");
+        out.append("        return (OnItemBind<T>) (OnItemBind<?>) INSTANCE;\n");
+        out.append("    }\n\n");
+        out.append("    /**\n");
+        out.append("     * Returns a new {@link ItemBinding} for the annotated types.\n");
+        out.append("     */\n");
+        out.append("    public static <T> ItemBinding<T> itemBinding() {\n");
+        out.append("        return ItemBinding.of(").append(simpleName).append(".<T>onItemBind());\n");
+        out.append("    }\n\n");
+        out.append("    @Override\n");
+        out.append("    public void onItemBind(ItemBinding itemBinding, int position, Object item) {\n");
+        for (int i = 0; i < mappings.size(); i++) {
+            Mapping mapping = mappings.get(i);
+            out.append(i == 0 ? "        if" : " else if").append(" (item instanceof ").append(mapping.name()).append(") {\n");
+            out.append("            itemBinding.set(").append(mapping.variable).append(", ").append(mapping.layout).append(");\n");
+            out.append("        }");
+        }
+        out.append(" else {\n");
+        out.append("            throw new IllegalArgumentException(\"Missing class for item \" + item);\n");
+        out.append("        }\n");
+        out.append("    }\n");
+        out.append("}\n");
+
+        Element[] originatingElements = new Element[mappings.size()];
+        for (int i = 0; i < originatingElements.length; i++) {
+            originatingElements[i] = mappings.get(i).type;
+        }
+        Writer writer = processingEnv.getFiler().createSourceFile(className, originatingElements).openWriter();
+        try {
+            writer.write(out.toString());
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void error(Element element, String message) {
+        failed = true;
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static class Mapping {
+        final TypeElement type;
+        final int variable;
+        final int layout;
+
+        Mapping(TypeElement type, int variable, int layout) {
+            this.type = type;
+            this.variable = variable;
+            this.layout = layout;
+        }
+
+        String name() {
+            return type.getQualifiedName().toString();
+        }
+    }
+}
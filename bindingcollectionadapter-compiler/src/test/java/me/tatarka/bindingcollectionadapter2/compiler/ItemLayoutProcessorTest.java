@@ -0,0 +1,260 @@
+package me.tatarka.bindingcollectionadapter2.compiler;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class ItemLayoutProcessorTest {
+
+    // Just enough of the library to compile the generated code against.
+    private static final String[][] LIBRARY = {
+            {"me/tatarka/bindingcollectionadapter2/itembindings/ItemLayout.java",
+                    "package me.tatarka.bindingcollectionadapter2.itembindings;\n"
+                            + "public @interface ItemLayout { int variable(); int layout(); }\n"},
+            {"me/tatarka/bindingcollectionadapter2/OnItemBind.java",
+                    "package me.tatarka.bindingcollectionadapter2;\n"
+                            + "public interface OnItemBind<T> { void onItemBind(ItemBinding itemBinding, int position, T item); }\n"},
+            {"me/tatarka/bindingcollectionadapter2/ItemBinding.java",
+                    "package me.tatarka.bindingcollectionadapter2;\n"
+                            + "public final class ItemBinding<T> {\n"
+                            + "  public static <T> ItemBinding<T> of(OnItemBind<T> onItemBind) { return new ItemBinding<>(); }\n"
+                            + "  public int variableId, layoutRes;\n"
+                            + "  public ItemBinding<T> set(int variableId, int layoutRes) { this.variableId = variableId; this.layoutRes = layoutRes; return this; }\n"
+                            + "}\n"},
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File sources;
+    private File classes;
+
+    @Before
+    public void setup() throws IOException {
+        sources = folder.newFolder("src");
+        classes = folder.newFolder("classes");
+        for (String[] source : LIBRARY) {
+            writeSource(source[0], source[1]);
+        }
+    }
+
+    @Test
+    public void generatesMostSpecificFirst() throws Exception {
+        writeSource("com/example/items/Item.java", "package com.example.items;\n"
+                + "@me.tatarka.bindingcollectionadapter2.itembindings.ItemLayout(variable = 1, layout = 10)\n"
+                + "public class Item {}\n");
+        writeSource("com/example/items/SpecialItem.java", "package com.example.items;\n"
+                + "@me.tatarka.bindingcollectionadapter2.itembindings.ItemLayout(variable = 1, layout = 11)\n"
+                + "public class SpecialItem extends Item {}\n");
+        writeSource("com/example/Footer.java", "package com.example;\n"
+                + "@me.tatarka.bindingcollectionadapter2.itembindings.ItemLayout(variable = 0, layout = 10)\n"
+                + "public class Footer {}\n");
+
+        assertThat(compile()).isEmpty();
+
+        ClassLoader loader = new URLClassLoader(new URL[]{classes.toURI().toURL()});
+        Class<?> itemLayouts = loader.loadClass("com.example.ItemLayouts");
+        assertThat(itemLayouts.getField("ITEM_TYPE_COUNT").getInt(null)).isEqualTo(2);
+
+        Object onItemBind = itemLayouts.getMethod("onItemBind").invoke(null);
+        Class<?> itemBindingClass = loader.loadClass("me.tatarka.bindingcollectionadapter2.ItemBinding");
+        Method onItemBindMethod = loader.loadClass("me.tatarka.bindingcollectionadapter2.OnItemBind")
+                .getMethod("onItemBind", itemBindingClass, int.class, Object.class);
+        Object itemBinding = itemBindingClass.getConstructor().newInstance();
+
+        onItemBindMethod.invoke(onItemBind, itemBinding, 0, loader.loadClass("com.example.items.SpecialItem").newInstance());
+        assertThat(itemBindingClass.getField("variableId").getInt(itemBinding)).isEqualTo(1);
+        assertThat(itemBindingClass.getField("layoutRes").getInt(itemBinding)).isEqualTo(11);
+
+        onItemBindMethod.invoke(onItemBind, itemBinding, 0, loader.loadClass("com.example.items.Item").newInstance());
+        assertThat(itemBindingClass.getField("layoutRes").getInt(itemBinding)).isEqualTo(10);
+
+        onItemBindMethod.invoke(onItemBind, itemBinding, 0, loader.loadClass("com.example.Footer").newInstance());
+        assertThat(itemBindingClass.getField("variableId").getInt(itemBinding)).isEqualTo(0);
+    }
+
+    @Test
+    public void classNameOption() throws Exception {
+        writeSource("com/example/Item.java", "package com.example;\n"
+                + "@me.tatarka.bindingcollectionadapter2.itembindings.ItemLayout(variable = 1, layout = 10)\n"
+                + "public class Item {}\n");
+
+        assertThat(compile("-A" + ItemLayoutProcessor.OPTION_CLASS_NAME + "=com.example.binding.Layouts")).isEmpty();
+
+        ClassLoader loader = new URLClassLoader(new URL[]{classes.toURI().toURL()});
+        assertThat(loader.loadClass("com.example.binding.Layouts").getField("ITEM_TYPE_COUNT").getInt(null)).isEqualTo(1);
+    }
+
+    @Test
+    public void noCommonPackageIsAnError() throws Exception {
+        writeSource("com/example/Item.java", "package com.example;\n"
+                + "@me.tatarka.bindingcollectionadapter2.itembindings.ItemLayout(variable = 1, layout = 10)\n"
+                + "public class Item {}\n");
+        writeSource("org/example/Header.java", "package org.example;\n"
+                + "@me.tatarka.bindingcollectionadapter2.itembindings.ItemLayout(variable = 1, layout = 11)\n"
+                + "public class Header {}\n");
+
+        assertThat(compile()).contains(ItemLayoutProcessor.OPTION_CLASS_NAME);
+        assertThat(new File(classes, "ItemLayouts.java").exists()).isFalse();
+    }
+
+    @Test
+    public void constantGeneratedInSameRound() throws Exception {
+        writeSource("com/example/Item.java", "package com.example;\n"
+                + "@me.tatarka.bindingcollectionadapter2.itembindings.ItemLayout(variable = BR.item, layout = 10)\n"
+                + "public class Item {}\n");
+
+        assertThat(compile(Collections.<Processor>singletonList(new BrProcessor()))).isEmpty();
+
+        ClassLoader loader = new URLClassLoader(new URL[]{classes.toURI().toURL()});
+        Object onItemBind = loader.loadClass("com.example.ItemLayouts").getMethod("onItemBind").invoke(null);
+        Class<?> itemBindingClass = loader.loadClass("me.tatarka.bindingcollectionadapter2.ItemBinding");
+        Object itemBinding = itemBindingClass.getConstructor().newInstance();
+        loader.loadClass("me.tatarka.bindingcollectionadapter2.OnItemBind")
+                .getMethod("onItemBind", itemBindingClass, int.class, Object.class)
+                .invoke(onItemBind, itemBinding, 0, loader.loadClass("com.example.Item").newInstance());
+        assertThat(itemBindingClass.getField("variableId").getInt(itemBinding)).isEqualTo(7);
+        assertThat(itemBindingClass.getField("layoutRes").getInt(itemBinding)).isEqualTo(10);
+    }
+
+    @Test
+    public void missingConstantIsAnError() throws Exception {
+        writeSource("com/example/Item.java", "package com.example;\n"
+                + "@me.tatarka.bindingcollectionadapter2.itembindings.ItemLayout(variable = BR.item, layout = 10)\n"
+                + "public class Item {}\n");
+
+        assertThat(compile()).contains("BR");
+        assertThat(new File(classes, "com/example/ItemLayouts.java").exists()).isFalse();
+    }
+
+    @Test
+    public void privateTypeIsAnError() throws Exception {
+        writeSource("com/example/Outer.java", "package com.example;\n"
+                + "public class Outer {\n"
+                + "  @me.tatarka.bindingcollectionadapter2.itembindings.ItemLayout(variable = 1, layout = 10)\n"
+                + "  private static class Item {}\n"
+                + "}\n");
+
+        assertThat(compile()).contains("must not be private");
+    }
+
+    private void writeSource(String path, String source) throws IOException {
+        File file = new File(sources, path);
+        file.getParentFile().mkdirs();
+        Writer writer = new FileWriter(file);
+        try {
+            writer.write(source);
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Compiles all sources with the processor and returns the compiler errors.
+     */
+    private String compile(String... extraOptions) throws IOException {
+        return compile(Collections.<Processor>emptyList(), extraOptions);
+    }
+
+    /**
+     * Compiles all sources with the given other processors followed by the processor and returns
+     * the compiler errors.
+     */
+    private String compile(List<Processor> otherProcessors, String... extraOptions) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+        List<File> files = new ArrayList<>();
+        collectSources(sources, files);
+        List<String> options = new ArrayList<>(Arrays.asList("-d", classes.getPath(), "-s", classes.getPath()));
+        options.addAll(Arrays.asList(extraOptions));
+        Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(files);
+        StringWriter errors = new StringWriter();
+        JavaCompiler.CompilationTask task = compiler.getTask(errors, fileManager, null, options, null, units);
+        List<Processor> processors = new ArrayList<>(otherProcessors);
+        processors.add(new ItemLayoutProcessor());
+        task.setProcessors(processors);
+        task.call();
+        fileManager.close();
+        return errors.toString();
+    }
+
+    private static void collectSources(File dir, List<File> files) {
+        File[] children = dir.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            if (child.isDirectory()) {
+                collectSources(child, files);
+            } else {
+                files.add(child);
+            }
+        }
+    }
+
+    /**
+     * Generates a {@code com.example.BR} in the first round, like the data binding processor does.
+     */
+    private static class BrProcessor extends AbstractProcessor {
+        private boolean generated;
+
+        @Override
+        public Set<String> getSupportedAnnotationTypes() {
+            return Collections.singleton("*");
+        }
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return SourceVersion.latestSupported();
+        }
+
+        @Override
+        public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+            if (generated) {
+                return false;
+            }
+            generated = true;
+            try {
+                Writer writer = processingEnv.getFiler().createSourceFile("com.example.BR").openWriter();
+                try {
+                    writer.write("package com.example;\npublic class BR { public static final int item = 7; }\n");
+                } finally {
+                    writer.close();
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(AndroidJUnit4.class)
+// SparseIntArray not mocked for JUnit
+public class BindingRecycledViewPoolTest {
+
+    @Test
+    public void viewTypesKeepDefaultMax() {
+        BindingRecycledViewPool pool = new BindingRecycledViewPool();
+
+        assertThat(pool.getMaxRecycledViews(1)).isEqualTo(5);
+
+        putRecycledViews(pool, 1, 7);
+
+        assertThat(recycledViewCount(pool, 1)).isEqualTo(5);
+
+        pool.setDefaultMaxRecycledViews(2);
+        putRecycledViews(pool, 1, 7);
+        putRecycledViews(pool, 2, 7);
+
+        assertThat(pool.getMaxRecycledViews(1)).isEqualTo(2);
+        assertThat(recycledViewCount(pool, 1)).isEqualTo(2);
+        assertThat(recycledViewCount(pool, 2)).isEqualTo(2);
+    }
+
+    @Test
+    public void autoSizeKeepsPeakAttachedCount() {
+        BindingRecycledViewPool pool = new BindingRecycledViewPool();
+        pool.setAutoSize(true);
+        attach(pool, 1, 8);
+        detach(pool, 1, 8);
+        attach(pool, 1, 3);
+        attach(pool, 2, 2);
+
+        assertThat(pool.getPeakAttachedCount(1)).isEqualTo(8);
+        assertThat(pool.getMaxRecycledViews(1)).isEqualTo(8);
+        assertThat(pool.getPeakAttachedCount(2)).isEqualTo(2);
+        assertThat(pool.getMaxRecycledViews(2)).isEqualTo(5);
+
+        putRecycledViews(pool, 1, 10);
+
+        assertThat(recycledViewCount(pool, 1)).isEqualTo(8);
+    }
+
+    @Test
+    public void peakIsOnlyAppliedWithAutoSize() {
+        BindingRecycledViewPool pool = new BindingRecycledViewPool();
+        attach(pool, 1, 8);
+
+        assertThat(pool.getPeakAttachedCount(1)).isEqualTo(8);
+        assertThat(pool.getMaxRecycledViews(1)).isEqualTo(5);
+
+        pool.setAutoSize(true);
+
+        assertThat(pool.getMaxRecycledViews(1)).isEqualTo(8);
+    }
+
+    @Test
+    public void detachingMoreThanAttachedDoesNotLowerPeak() {
+        BindingRecycledViewPool pool = new BindingRecycledViewPool();
+        detach(pool, 1, 2);
+        attach(pool, 1, 1);
+
+        assertThat(pool.getPeakAttachedCount(1)).isEqualTo(1);
+    }
+
+    @Test
+    public void explicitMaxOverridesAutoSize() {
+        BindingRecycledViewPool pool = new BindingRecycledViewPool();
+        pool.setAutoSize(true);
+        pool.setMaxRecycledViews(1, 2);
+        attach(pool, 1, 8);
+        pool.setDefaultMaxRecycledViews(10);
+
+        assertThat(pool.getPeakAttachedCount(1)).isEqualTo(8);
+        assertThat(pool.getMaxRecycledViews(1)).isEqualTo(2);
+
+        putRecycledViews(pool, 1, 10);
+
+        assertThat(recycledViewCount(pool, 1)).isEqualTo(2);
+    }
+
+    @Test
+    public void adapterMaxReplacesDefault() {
+        BindingRecycledViewPool pool = new BindingRecycledViewPool();
+        pool.setAdapterMaxRecycledViews(1, 2);
+
+        assertThat(pool.getMaxRecycledViews(1)).isEqualTo(2);
+        assertThat(pool.getMaxRecycledViews(2)).isEqualTo(5);
+
+        pool.setAdapterMaxRecycledViews(1, 8);
+        pool.setAdapterMaxRecycledViews(1, 3);
+        putRecycledViews(pool, 1, 10);
+
+        assertThat(pool.getMaxRecycledViews(1)).isEqualTo(8);
+        assertThat(recycledViewCount(pool, 1)).isEqualTo(8);
+    }
+
+    @Test
+    public void autoSizeRaisesAdapterMax() {
+        BindingRecycledViewPool pool = new BindingRecycledViewPool();
+        pool.setAutoSize(true);
+        pool.setAdapterMaxRecycledViews(1, 2);
+
+        assertThat(pool.getMaxRecycledViews(1)).isEqualTo(2);
+
+        attach(pool, 1, 6);
+
+        assertThat(pool.getMaxRecycledViews(1)).isEqualTo(6);
+    }
+
+    @Test
+    public void explicitMaxOverridesAdapterMax() {
+        BindingRecycledViewPool pool = new BindingRecycledViewPool();
+        pool.setMaxRecycledViews(1, 3);
+        pool.setAdapterMaxRecycledViews(1, 8);
+
+        assertThat(pool.getMaxRecycledViews(1)).isEqualTo(3);
+
+        putRecycledViews(pool, 1, 10);
+
+        assertThat(recycledViewCount(pool, 1)).isEqualTo(3);
+    }
+
+    private static void attach(BindingRecycledViewPool pool, int viewType, int count) {
+        for (int i = 0; i < count; i++) {
+            pool.onViewAttached(viewType);
+        }
+    }
+
+    private static void detach(BindingRecycledViewPool pool, int viewType, int count) {
+        for (int i = 0; i < count; i++) {
+            pool.onViewDetached(viewType);
+        }
+    }
+
+    private static void putRecycledViews(RecyclerView.RecycledViewPool pool, int viewType, int count) {
+        for (int i = 0; i < count; i++) {
+            pool.putRecycledView(HOLDERS.createViewHolder(null, viewType));
+        }
+    }
+
+    private static int recycledViewCount(RecyclerView.RecycledViewPool pool, int viewType) {
+        int count = 0;
+        while (pool.getRecycledView(viewType) != null) {
+            count++;
+        }
+        return count;
+    }
+
+    // Creates holders of the requested view type.
+    private static final RecyclerView.Adapter<RecyclerView.ViewHolder> HOLDERS = new RecyclerView.Adapter<RecyclerView.ViewHolder>() {
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+            return new RecyclerView.ViewHolder(new View(InstrumentationRegistry.getTargetContext())) {
+            };
+        }
+
+        @Override
+        public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
+        }
+
+        @Override
+        public int getItemCount() {
+            return 0;
+        }
+    };
+}
@@ -1,12 +1,17 @@
 package me.tatarka.bindingcollectionadapter2.recyclerview;
 
 import android.databinding.DataBindingUtil;
+import android.databinding.ObservableArrayList;
+import android.databinding.ObservableList;
 import android.databinding.ViewDataBinding;
 import android.support.test.annotation.UiThreadTest;
 import android.support.test.rule.ActivityTestRule;
 import android.support.test.runner.AndroidJUnit4;
+import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
 import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.TextView;
 
 import me.tatarka.bindingcollectionadapter2.ItemBinding;
 import org.junit.Before;
@@ -17,10 +22,13 @@ import org.junit.runner.RunWith;
 import java.util.Arrays;
 import java.util.List;
 
+import me.tatarka.bindingcollectionadapter2.BindingRecycledViewPool;
 import me.tatarka.bindingcollectionadapter2.BindingRecyclerViewAdapter;
+import me.tatarka.bindingcollectionadapter2.BindingRecyclerViewAdapters;
 import me.tatarka.bindingcollectionadapter2.recyclerview.test.R;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
 
 @RunWith(AndroidJUnit4.class)
 public class RecyclerViewInflationTest {
@@ -66,4 +74,72 @@ public class RecyclerViewInflationTest {
 
         assertThat(adapter).isInstanceOf(TestHelpers.MyBindingRecyclerViewAdapter.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    @UiThreadTest
+    public void shareRecycledViewsWithRecycledViewPoolThrows() {
+        RecyclerView recyclerView = new RecyclerView(activityTestRule.getActivity());
+        List<String> items = Arrays.asList("one", "two", "three");
+        try {
+            BindingRecyclerViewAdapters.setAdapter(recyclerView, ItemBinding.<String>of(BR.item, R.layout.item), items, null, null, null, true, new BindingRecycledViewPool(), null);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    public void rebindingWithoutRecycledViewPoolUnsetsStableViewTypes() {
+        RecyclerView recyclerView = new RecyclerView(activityTestRule.getActivity());
+        List<String> items = Arrays.asList("one", "two", "three");
+        ItemBinding<String> itemBinding = ItemBinding.of(BR.item, R.layout.item);
+        BindingRecyclerViewAdapters.setAdapter(recyclerView, itemBinding, items, null, null, null, false, new BindingRecycledViewPool(), 3);
+        BindingRecyclerViewAdapter<?> adapter = (BindingRecyclerViewAdapter<?>) recyclerView.getAdapter();
+
+        assertThat(adapter.isStableViewTypes()).isTrue();
+
+        BindingRecyclerViewAdapters.setAdapter(recyclerView, itemBinding, items, null, null, null, false, null, null);
+
+        assertThat(adapter.isStableViewTypes()).isFalse();
+    }
+
+    @Test
+    @UiThreadTest
+    public void scrollBeforeBatchedNotificationsAreDispatched() {
+        ObservableList<String> items = new ObservableArrayList<>();
+        items.addAll(Arrays.asList("one", "two", "three"));
+        BindingRecyclerViewAdapter<String> adapter = new BindingRecyclerViewAdapter<>();
+        adapter.setItemBinding(ItemBinding.<String>of(BR.item, R.layout.item));
+        adapter.setItems(items);
+        adapter.setBatchNotifications(true);
+        RecyclerView recyclerView = new RecyclerView(activityTestRule.getActivity());
+        recyclerView.setLayoutManager(new LinearLayoutManager(activityTestRule.getActivity()));
+        recyclerView.setAdapter(adapter);
+        layout(recyclerView);
+
+        for (int i = 0; i < 100; i++) {
+            items.add(1, "new");
+        }
+        recyclerView.scrollToPosition(2);
+        layout(recyclerView);
+        recyclerView.scrollBy(0, 10);
+
+        assertThat(adapter.getItemCount()).isEqualTo(3);
+        assertThat(adapter.getAdapterItem(2)).isEqualTo("three");
+        assertThat(((TextView) recyclerView.findViewHolderForAdapterPosition(2).itemView).getText().toString()).isEqualTo("three");
+
+        // Dispatches the pending insert.
+        adapter.setBatchNotifications(false);
+        recyclerView.scrollToPosition(102);
+        layout(recyclerView);
+
+        assertThat(adapter.getItemCount()).isEqualTo(103);
+        assertThat(((TextView) recyclerView.findViewHolderForAdapterPosition(102).itemView).getText().toString()).isEqualTo("three");
+    }
+
+    private static void layout(View view) {
+        view.measure(View.MeasureSpec.makeMeasureSpec(1000, View.MeasureSpec.EXACTLY), View.MeasureSpec.makeMeasureSpec(1000, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, 1000, 1000);
+    }
+}
@@ -0,0 +1,136 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseBooleanArray;
+import android.util.SparseIntArray;
+
+/**
+ * A {@link RecyclerView.RecycledViewPool} that manages how many views of each view type it keeps.
+ * View types without an explicit {@link #setMaxRecycledViews(int, int)} keep {@link
+ * #setDefaultMaxRecycledViews(int)}, or with {@link #setAutoSize(boolean)} as many views as the
+ * most of that type seen on screen at once, so scrolling a whole screen of them away doesn't throw
+ * views away that are needed again right after.
+ * <p>
+ * A {@link BindingRecyclerViewAdapter#setMaxRecycledViews(int)} takes the place of the default for
+ * the view types of that adapter, the largest one wins when several adapters set one. It's still
+ * raised by auto sizing, and an explicit max on the pool takes precedence over it.
+ * <p>
+ * On screen counts are reported by {@link BindingRecyclerViewAdapter}s of the recycler views using
+ * this pool.
+ */
+public class BindingRecycledViewPool extends RecyclerView.RecycledViewPool {
+    // The default of RecycledViewPool itself.
+    private static final int DEFAULT_MAX_RECYCLED_VIEWS = 5;
+
+    private int defaultMaxRecycledViews = DEFAULT_MAX_RECYCLED_VIEWS;
+    private boolean autoSize;
+    // The current max of every view type seen so far.
+    private final SparseIntArray maxRecycledViews = new SparseIntArray();
+    private final SparseBooleanArray explicitMaxRecycledViews = new SparseBooleanArray();
+    private final SparseIntArray adapterMaxRecycledViews = new SparseIntArray();
+    private final SparseIntArray attachedCounts = new SparseIntArray();
+    private final SparseIntArray peakAttachedCounts = new SparseIntArray();
+
+    @Override
+    public void setMaxRecycledViews(int viewType, int max) {
+        explicitMaxRecycledViews.put(viewType, true);
+        maxRecycledViews.put(viewType, max);
+        super.setMaxRecycledViews(viewType, max);
+    }
+
+    /**
+     * Sets how many views are kept of each view type that doesn't have an explicit max. Defaults to
+     * 5.
+     */
+    public void setDefaultMaxRecycledViews(int max) {
+        defaultMaxRecycledViews = max;
+        updateMaxRecycledViews();
+    }
+
+    /**
+     * Sets whether view types without an explicit max keep as many views as the most of that type
+     * seen on screen at once, if that is more than the default. Defaults to false.
+     */
+    public void setAutoSize(boolean autoSize) {
+        this.autoSize = autoSize;
+        updateMaxRecycledViews();
+    }
+
+    /**
+     * Returns how many views of the given view type are kept.
+     */
+    public int getMaxRecycledViews(int viewType) {
+        int index = maxRecycledViews.indexOfKey(viewType);
+        return index >= 0 ? maxRecycledViews.valueAt(index) : managedMaxRecycledViews(viewType);
+    }
+
+    /**
+     * Returns the most views of the given view type seen on screen at once.
+     */
+    public int getPeakAttachedCount(int viewType) {
+        return peakAttachedCounts.get(viewType);
+    }
+
+    @Override
+    public void putRecycledView(RecyclerView.ViewHolder scrap) {
+        int viewType = scrap.getItemViewType();
+        if (maxRecycledViews.indexOfKey(viewType) < 0) {
+            updateMaxRecycledViews(viewType);
+        }
+        super.putRecycledView(scrap);
+    }
+
+    /**
+     * Sets the max an adapter wants for the given view type, used instead of the default if it's
+     * the largest one so far.
+     */
+    void setAdapterMaxRecycledViews(int viewType, int max) {
+        if (max > adapterMaxRecycledViews.get(viewType, -1)) {
+            adapterMaxRecycledViews.put(viewType, max);
+            updateMaxRecycledViews(viewType);
+        }
+    }
+
+    void onViewAttached(int viewType) {
+        int count = attachedCounts.get(viewType) + 1;
+        attachedCounts.put(viewType, count);
+        if (count > peakAttachedCounts.get(viewType)) {
+            peakAttachedCounts.put(viewType, count);
+            if (autoSize) {
+                updateMaxRecycledViews(viewType);
+            }
+        }
+    }
+
+    void onViewDetached(int viewType) {
+        int count = attachedCounts.get(viewType);
+        if (count > 0) {
+            attachedCounts.put(viewType, count - 1);
+        }
+    }
+
+    private void updateMaxRecycledViews() {
+        for (int i = 0; i < maxRecycledViews.size(); i++) {
+            updateMaxRecycledViews(maxRecycledViews.keyAt(i));
+        }
+    }
+
+    private void updateMaxRecycledViews(int viewType) {
+        if (explicitMaxRecycledViews.get(viewType)) {
+            return;
+        }
+        int max = managedMaxRecycledViews(viewType);
+        if (maxRecycledViews.get(viewType, -1) != max) {
+            maxRecycledViews.put(viewType, max);
+            super.setMaxRecycledViews(viewType, max);
+        }
+    }
+
+    private int managedMaxRecycledViews(int viewType) {
+        int max = adapterMaxRecycledViews.get(viewType, defaultMaxRecycledViews);
+        if (autoSize) {
+            max = Math.max(max, peakAttachedCounts.get(viewType));
+        }
+        return max;
+    }
+}
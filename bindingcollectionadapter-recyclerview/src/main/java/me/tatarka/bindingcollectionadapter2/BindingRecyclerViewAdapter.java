@@ -6,13 +6,22 @@ import android.databinding.OnRebindCallback;
 import android.databinding.ViewDataBinding;
 import android.support.annotation.LayoutRes;
 import android.support.annotation.Nullable;
+import android.support.v4.view.ViewCompat;
+import android.support.v7.util.ListUpdateCallback;
 import android.support.v7.widget.RecyclerView;
 import android.support.v7.widget.RecyclerView.ViewHolder;
+import android.util.SparseBooleanArray;
 import android.view.LayoutInflater;
 import android.view.ViewGroup;
+import android.view.ViewParent;
 
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import me.tatarka.bindingcollectionadapter2.collections.PayloadOnListChangedCallback;
 
 /**
  * A {@link RecyclerView.Adapter} that binds items to layouts using the given {@link ItemBinding}.
@@ -21,6 +30,8 @@ import java.util.List;
  */
 public class BindingRecyclerViewAdapter<T> extends RecyclerView.Adapter<ViewHolder> implements BindingCollectionAdapter<T> {
     private static final Object DATA_INVALIDATION = new Object();
+    private static final int DEFAULT_MAX_ITEM_MOVES = 32;
+    private static final long DEFAULT_PENDING_BINDINGS_FRAME_BUDGET_MS = 4;
 
     private ItemBinding<T> itemBinding;
     private WeakReferenceOnListChangedCallback<T> callback;
@@ -31,11 +42,42 @@ public class BindingRecyclerViewAdapter<T> extends RecyclerView.Adapter<ViewHold
     // Currently attached recyclerview, we don't have to listen to notifications if null.
     @Nullable
     private RecyclerView recyclerView;
-    
+    private final ListUpdateCallback notifier = new AdapterNotifier();
+    // Non-null if list change notifications are batched until the next frame.
+    @Nullable
+    private NotificationBatcher notificationBatcher;
+    private boolean dispatchPendingScheduled;
+    private int maxItemMoves = DEFAULT_MAX_ITEM_MOVES;
+    private final ResolvedBindingCache resolvedBindings = new ResolvedBindingCache();
+    // Non-null if binding the same item again is skipped.
+    @Nullable
+    private RebindSkipper rebindSkipper;
+    // Non-null if executing pending bindings is deferred until right before drawing.
+    @Nullable
+    private PendingBindingsFlusher pendingBindingsFlusher;
+    private long pendingBindingsFrameBudgetMs = DEFAULT_PENDING_BINDINGS_FRAME_BUDGET_MS;
+    private boolean stableViewTypes;
+    // -1 to leave the pool's max alone.
+    private int maxRecycledViews = -1;
+    private final SparseBooleanArray maxRecycledViewsApplied = new SparseBooleanArray();
+    @Nullable
+    private BindingPreInflater preInflater;
+    @Nullable
+    private BindingMetrics metrics;
+    private final Runnable dispatchPendingNotifications = new Runnable() {
+        @Override
+        public void run() {
+            dispatchPendingScheduled = false;
+            if (notificationBatcher != null) {
+                notificationBatcher.dispatchPending();
+            }
+        }
+    };
 
     @Override
     public void setItemBinding(ItemBinding<T> itemBinding) {
         this.itemBinding = itemBinding;
+        resolvedBindings.clear();
     }
 
     @Override
@@ -61,26 +103,233 @@ public class BindingRecyclerViewAdapter<T> extends RecyclerView.Adapter<ViewHold
             }
         }
         this.items = items;
+        resolvedBindings.clear();
+        if (notificationBatcher != null) {
+            notificationBatcher.clearPending();
+        }
         notifyDataSetChanged();
     }
 
+    /**
+     * Sets whether changes to an {@link ObservableList} are batched. If true, change notifications
+     * are collected and coalesced, for example many single inserts at the end of the list become
+     * one range insert, and dispatched on the next animation frame instead of immediately. This
+     * avoids a lot of bookkeeping in the {@link RecyclerView} when a list is changed many times
+     * in a row. Defaults to false.
+     * <p>
+     * Until the changes are dispatched the adapter's positions, like {@link #getItemCount()} and
+     * {@link #getAdapterItem(int)}, stay the ones the {@link RecyclerView} has been told about, so
+     * it can lay out and scroll in the meantime. Inserted items show up once they are dispatched.
+     * Removes are dispatched right away.
+     */
+    public void setBatchNotifications(boolean batchNotifications) {
+        if (batchNotifications == (notificationBatcher != null)) {
+            return;
+        }
+        if (batchNotifications) {
+            notificationBatcher = new NotificationBatcher(notifier);
+        } else {
+            notificationBatcher.dispatchPending();
+            notificationBatcher = null;
+        }
+    }
+
+    /**
+     * Sets the most single item moves a block move of an {@link ObservableList} is dispatched as.
+     * Larger block moves are dispatched as a remove and an insert, which avoids running an
+     * animation for every item. Defaults to 32.
+     */
+    public void setMaxItemMoves(int maxItemMoves) {
+        this.maxItemMoves = maxItemMoves;
+    }
+
+    /**
+     * Sets whether view types come from {@link ItemViewTypes} instead of being the layout. These
+     * are compact and the same for every adapter that binds a layout with the same variable id, so
+     * holders can be shared between adapters through a {@link RecyclerView.RecycledViewPool}. Note
+     * that a shared holder keeps any extra bindings the other adapter set that this one doesn't.
+     * Defaults to false, where {@link #getItemViewType(int)} returns the layout.
+     */
+    public void setStableViewTypes(boolean stableViewTypes) {
+        if (this.stableViewTypes != stableViewTypes) {
+            this.stableViewTypes = stableViewTypes;
+            notifyDataSetChanged();
+        }
+    }
+
+    /**
+     * Returns whether view types come from {@link ItemViewTypes}.
+     *
+     * @see #setStableViewTypes(boolean)
+     */
+    public boolean isStableViewTypes() {
+        return stableViewTypes;
+    }
+
+    /**
+     * Sets how many views of each view type the {@link RecyclerView.RecycledViewPool} keeps, it's
+     * applied the first time this adapter creates a view of the type. Pass -1 to keep the pool's
+     * own max, which is the default. With a {@link BindingRecycledViewPool} this only replaces the
+     * pool's default for those view types, see there for how it combines with other adapters.
+     *
+     * @see BindingRecycledViewPool
+     */
+    public void setMaxRecycledViews(int maxRecycledViews) {
+        if (this.maxRecycledViews != maxRecycledViews) {
+            this.maxRecycledViews = maxRecycledViews;
+            maxRecycledViewsApplied.clear();
+        }
+    }
+
+    /**
+     * Sets whether binding a view holder is skipped when it's already bound to the same item
+     * instance, for example when a {@code MergeObservableList} notifies a range as changed without
+     * replacing the items. Binds with payloads are never skipped. Only enable this if your items
+     * are immutable or observable, see {@link RebindSkipper}. Defaults to false.
+     */
+    public void setSkipRedundantBinds(boolean skipRedundantBinds) {
+        if (skipRedundantBinds != (rebindSkipper != null)) {
+            rebindSkipper = skipRedundantBinds ? new RebindSkipper() : null;
+        }
+    }
+
+    /**
+     * Returns the counts of skipped and actual binds, or null if redundant binds aren't skipped.
+     *
+     * @see #setSkipRedundantBinds(boolean)
+     */
+    @Nullable
+    public RebindSkipper getRebindSkipper() {
+        return rebindSkipper;
+    }
+
+    /**
+     * Sets a {@link BindingPreInflater} to take item views from before inflating them, so that the
+     * first screen of items doesn't have to inflate every layout on the main thread. If you override
+     * {@link #onCreateBinding(LayoutInflater, int, ViewGroup)} it's up to you to use it.
+     */
+    public void setPreInflater(@Nullable BindingPreInflater preInflater) {
+        this.preInflater = preInflater;
+    }
+
+    /**
+     * Sets the {@link BindingMetrics} to record inflate and bind times and list change
+     * notifications to, or null to not record them. Defaults to null.
+     */
+    public void setMetrics(@Nullable BindingMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Nullable
+    public BindingMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets whether {@link ViewDataBinding#executePendingBindings()} is deferred when binding an
+     * item. If true, the binding expressions of bound items are evaluated in {@link
+     * #onBindViewHolder(ViewHolder, int)} only until {@link #setPendingBindingsFrameBudget(long)}
+     * is spent for the current frame. Items bound after that are evaluated at the start of the
+     * following frames, before the {@link RecyclerView} is laid out, so only those show their
+     * previous content for a frame and cause another layout if that changes the size of their
+     * views. Defaults to false.
+     */
+    public void setDeferPendingBindings(boolean deferPendingBindings) {
+        if (deferPendingBindings == (pendingBindingsFlusher != null)) {
+            return;
+        }
+        if (deferPendingBindings) {
+            pendingBindingsFlusher = new PendingBindingsFlusher(TimeUnit.MILLISECONDS.toNanos(pendingBindingsFrameBudgetMs));
+            if (recyclerView != null) {
+                pendingBindingsFlusher.attach(recyclerView);
+            }
+        } else {
+            pendingBindingsFlusher.detach();
+            pendingBindingsFlusher = null;
+        }
+    }
+
+    /**
+     * Sets the most time in milliseconds spent per frame on executing pending bindings when they
+     * are deferred.
+     * Defaults to 4.
+     *
+     * @see #setDeferPendingBindings(boolean)
+     */
+    public void setPendingBindingsFrameBudget(long frameBudgetMs) {
+        pendingBindingsFrameBudgetMs = frameBudgetMs;
+        if (pendingBindingsFlusher != null) {
+            pendingBindingsFlusher.setFrameBudgetNanos(TimeUnit.MILLISECONDS.toNanos(frameBudgetMs));
+        }
+    }
+
+    /**
+     * Returns the callback to send list change notifications to, either directly to this adapter
+     * or to the batcher.
+     */
+    ListUpdateCallback listUpdateCallback() {
+        if (notificationBatcher == null) {
+            return notifier;
+        }
+        if (!dispatchPendingScheduled && recyclerView != null) {
+            dispatchPendingScheduled = true;
+            ViewCompat.postOnAnimation(recyclerView, dispatchPendingNotifications);
+        }
+        return notificationBatcher;
+    }
+
     @Override
     public T getAdapterItem(int position) {
-        return items.get(position);
+        return items.get(itemPosition(position));
+    }
+
+    /**
+     * Returns the position in the items of the given adapter position, these differ while batched
+     * inserts haven't been dispatched.
+     */
+    private int itemPosition(int position) {
+        return notificationBatcher != null ? notificationBatcher.currentPosition(position) : position;
     }
 
     @Override
     public ViewDataBinding onCreateBinding(LayoutInflater inflater, @LayoutRes int layoutId, ViewGroup viewGroup) {
+        if (preInflater != null) {
+            ViewDataBinding binding = preInflater.obtain(layoutId);
+            if (binding != null) {
+                return binding;
+            }
+        }
         return DataBindingUtil.inflate(inflater, layoutId, viewGroup, false);
     }
 
     @Override
     public void onBindBinding(ViewDataBinding binding, int variableId, @LayoutRes int layoutRes, int position, T item) {
-        if (itemBinding.bind(binding, item)) {
-            binding.executePendingBindings();
+        // A subclass may pass an item of its own, it's bound the way the item at the position is.
+        ResolvedBinding resolvedBinding = items != null && position >= 0 && position < items.size()
+                ? resolvedBinding(position)
+                : itemBinding.resolve(position, item);
+        if (resolvedBinding.bind(binding, variableId, item)) {
+            if (pendingBindingsFlusher != null && recyclerView != null) {
+                pendingBindingsFlusher.add(binding);
+            } else {
+                BindingMetrics.executePendingBindings(metrics, binding, layoutRes);
+            }
         }
     }
 
+    /**
+     * Called to rebind the given item for a partial change, with the payloads the change was
+     * notified with. These come from {@link RecyclerView.Adapter#notifyItemChanged(int, Object)}
+     * or from an {@link ObservableList} that provides payloads, like {@code DiffObservableList}
+     * with a {@code ChangePayloadCallback}. A subclass may override this to only update the parts
+     * of the binding that changed, it should then call {@link ViewDataBinding#executePendingBindings()}
+     * itself. The default implementation ignores the payloads and calls {@link
+     * #onBindBinding(ViewDataBinding, int, int, int, Object)}.
+     */
+    public void onBindBinding(ViewDataBinding binding, int variableId, @LayoutRes int layoutRes, int position, T item, List<Object> payloads) {
+        onBindBinding(binding, variableId, layoutRes, position, item);
+    }
+
     @Override
     public void onAttachedToRecyclerView(RecyclerView recyclerView) {
         if (this.recyclerView == null && items != null && items instanceof ObservableList) {
@@ -88,10 +337,19 @@ public class BindingRecyclerViewAdapter<T> extends RecyclerView.Adapter<ViewHold
             ((ObservableList<T>) items).addOnListChangedCallback(callback);
         }
         this.recyclerView = recyclerView;
+        if (pendingBindingsFlusher != null) {
+            pendingBindingsFlusher.attach(recyclerView);
+        }
     }
 
     @Override
     public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
+        if (notificationBatcher != null) {
+            notificationBatcher.dispatchPending();
+        }
+        if (pendingBindingsFlusher != null) {
+            pendingBindingsFlusher.detach();
+        }
         if (this.recyclerView != null && items != null && items instanceof ObservableList) {
             ((ObservableList<T>) items).removeOnListChangedCallback(callback);
             callback = null;
@@ -100,32 +358,101 @@ public class BindingRecyclerViewAdapter<T> extends RecyclerView.Adapter<ViewHold
     }
 
     @Override
-    public final ViewHolder onCreateViewHolder(ViewGroup viewGroup, int layoutId) {
+    public final ViewHolder onCreateViewHolder(ViewGroup viewGroup, int viewType) {
         if (inflater == null) {
             inflater = LayoutInflater.from(viewGroup.getContext());
         }
-        ViewDataBinding binding = onCreateBinding(inflater, layoutId, viewGroup);
+        int layoutId = stableViewTypes ? ItemViewTypes.layoutResOf(viewType) : viewType;
+        if (maxRecycledViews >= 0 && recyclerView != null && !maxRecycledViewsApplied.get(viewType)) {
+            RecyclerView.RecycledViewPool pool = recyclerView.getRecycledViewPool();
+            if (pool instanceof BindingRecycledViewPool) {
+                ((BindingRecycledViewPool) pool).setAdapterMaxRecycledViews(viewType, maxRecycledViews);
+            } else {
+                pool.setMaxRecycledViews(viewType, maxRecycledViews);
+            }
+            maxRecycledViewsApplied.put(viewType, true);
+        }
+        ViewDataBinding binding = createBinding(layoutId, viewGroup);
         final ViewHolder holder = onCreateViewHolder(binding);
         binding.addOnRebindCallback(new OnRebindCallback() {
             @Override
             public boolean onPreBind(ViewDataBinding binding) {
-                return recyclerView != null && recyclerView.isComputingLayout();
+                return currentAdapter(holder).canRebind();
             }
 
             @Override
             public void onCanceled(ViewDataBinding binding) {
-                if (recyclerView == null || recyclerView.isComputingLayout()) {
-                    return;
-                }
-                int position = holder.getAdapterPosition();
-                if (position != RecyclerView.NO_POSITION) {
-                    notifyItemChanged(position, DATA_INVALIDATION);
-                }
+                currentAdapter(holder).onRebindCanceled(holder, binding);
             }
         });
         return holder;
     }
 
+    private ViewDataBinding createBinding(@LayoutRes int layoutId, ViewGroup viewGroup) {
+        BindingMetrics metrics = this.metrics;
+        if (metrics == null) {
+            return onCreateBinding(inflater, layoutId, viewGroup);
+        }
+        long start = metrics.startTime();
+        ViewDataBinding binding = onCreateBinding(inflater, layoutId, viewGroup);
+        metrics.record(BindingMetrics.Phase.INFLATE, layoutId, start);
+        return binding;
+    }
+
+    private void recordNotification(BindingMetrics.Notification notification) {
+        if (metrics != null) {
+            metrics.recordNotification(notification);
+        }
+    }
+
+    @Override
+    public void onViewAttachedToWindow(ViewHolder holder) {
+        if (recyclerView != null && recyclerView.getRecycledViewPool() instanceof BindingRecycledViewPool) {
+            ((BindingRecycledViewPool) recyclerView.getRecycledViewPool()).onViewAttached(holder.getItemViewType());
+        }
+    }
+
+    @Override
+    public void onViewDetachedFromWindow(ViewHolder holder) {
+        if (recyclerView != null && recyclerView.getRecycledViewPool() instanceof BindingRecycledViewPool) {
+            ((BindingRecycledViewPool) recyclerView.getRecycledViewPool()).onViewDetached(holder.getItemViewType());
+        }
+    }
+
+    /**
+     * Returns the adapter the holder is currently shown by. With a shared {@link
+     * RecyclerView.RecycledViewPool} this may be a different one than created it.
+     */
+    private BindingRecyclerViewAdapter<?> currentAdapter(ViewHolder holder) {
+        ViewParent parent = holder.itemView.getParent();
+        if (parent instanceof RecyclerView) {
+            RecyclerView.Adapter adapter = ((RecyclerView) parent).getAdapter();
+            if (adapter instanceof BindingRecyclerViewAdapter) {
+                return (BindingRecyclerViewAdapter<?>) adapter;
+            }
+        }
+        return this;
+    }
+
+    private boolean canRebind() {
+        return recyclerView != null
+                && (recyclerView.isComputingLayout() || (pendingBindingsFlusher != null && pendingBindingsFlusher.isFlushing()));
+    }
+
+    private void onRebindCanceled(ViewHolder holder, ViewDataBinding binding) {
+        if (recyclerView == null || recyclerView.isComputingLayout()) {
+            return;
+        }
+        if (pendingBindingsFlusher != null && pendingBindingsFlusher.isPending(binding)) {
+            // Will be executed at the start of the next frame anyway.
+            return;
+        }
+        int position = holder.getAdapterPosition();
+        if (position != RecyclerView.NO_POSITION) {
+            notifyItemChanged(position, DATA_INVALIDATION);
+        }
+    }
+
     /**
      * Constructs a view holder for the given databinding. The default implementation is to use
      * {@link ViewHolderFactory} if provided, otherwise use a default view holder.
@@ -145,22 +472,56 @@ public class BindingRecyclerViewAdapter<T> extends RecyclerView.Adapter<ViewHold
     }
 
     @Override
-    public final void onBindViewHolder(ViewHolder viewHolder, int position) {
+    public final void onBindViewHolder(ViewHolder viewHolder, int adapterPosition) {
+        int position = itemPosition(adapterPosition);
         T item = items.get(position);
         ViewDataBinding binding = DataBindingUtil.getBinding(viewHolder.itemView);
-        onBindBinding(binding, itemBinding.variableId(), itemBinding.layoutRes(), position, item);
+        ResolvedBinding resolvedBinding = resolvedBinding(position);
+        if (rebindSkipper != null && rebindSkipper.skip(binding, resolvedBinding, item)) {
+            return;
+        }
+        BindingMetrics metrics = this.metrics;
+        if (metrics == null) {
+            onBindBinding(binding, resolvedBinding.variableId(), resolvedBinding.layoutRes(), position, item);
+            return;
+        }
+        long start = metrics.startTime();
+        onBindBinding(binding, resolvedBinding.variableId(), resolvedBinding.layoutRes(), position, item);
+        metrics.record(BindingMetrics.Phase.BIND, resolvedBinding.layoutRes(), start);
     }
 
     @Override
-    public void onBindViewHolder(ViewHolder holder, int position, List<Object> payloads) {
+    public void onBindViewHolder(ViewHolder holder, int adapterPosition, List<Object> payloads) {
         if (isForDataBinding(payloads)) {
             ViewDataBinding binding = DataBindingUtil.getBinding(holder.itemView);
             binding.executePendingBindings();
+        } else if (payloads == null || payloads.isEmpty()) {
+            super.onBindViewHolder(holder, adapterPosition, payloads);
         } else {
-            super.onBindViewHolder(holder, position, payloads);
+            int position = itemPosition(adapterPosition);
+            T item = items.get(position);
+            ViewDataBinding binding = DataBindingUtil.getBinding(holder.itemView);
+            ResolvedBinding resolvedBinding = resolvedBinding(position);
+            BindingMetrics metrics = this.metrics;
+            if (metrics == null) {
+                onBindBinding(binding, resolvedBinding.variableId(), resolvedBinding.layoutRes(), position, item, withoutDataInvalidation(payloads));
+                return;
+            }
+            long start = metrics.startTime();
+            onBindBinding(binding, resolvedBinding.variableId(), resolvedBinding.layoutRes(), position, item, withoutDataInvalidation(payloads));
+            metrics.record(BindingMetrics.Phase.BIND, resolvedBinding.layoutRes(), start);
         }
     }
 
+    private static List<Object> withoutDataInvalidation(List<Object> payloads) {
+        if (!payloads.contains(DATA_INVALIDATION)) {
+            return payloads;
+        }
+        List<Object> result = new ArrayList<>(payloads);
+        result.removeAll(Collections.singleton(DATA_INVALIDATION));
+        return result;
+    }
+
     private boolean isForDataBinding(List<Object> payloads) {
         if (payloads == null || payloads.size() == 0) {
             return false;
@@ -176,8 +537,19 @@ public class BindingRecyclerViewAdapter<T> extends RecyclerView.Adapter<ViewHold
 
     @Override
     public int getItemViewType(int position) {
-        itemBinding.onItemBind(position, items.get(position));
-        return itemBinding.layoutRes();
+        ResolvedBinding resolvedBinding = resolvedBinding(itemPosition(position));
+        return stableViewTypes ? resolvedBinding.viewType() : resolvedBinding.layoutRes();
+    }
+
+    /**
+     * Returns what the item binding resolved to for the given position. {@link
+     * ItemBinding#onItemBind(int, Object)} is only called again once the position has changed, so
+     * the view type and the binding always agree even though the item binding is shared. Changes to
+     * an {@link ObservableList} invalidate it, and the cache notices a different item at a position
+     * when a plain list is changed and the adapter notified directly.
+     */
+    private ResolvedBinding resolvedBinding(int position) {
+        return resolvedBindings.get(itemBinding, items, position);
     }
 
     /**
@@ -201,15 +573,22 @@ public class BindingRecyclerViewAdapter<T> extends RecyclerView.Adapter<ViewHold
 
     @Override
     public int getItemCount() {
-        return items == null ? 0 : items.size();
+        if (items == null) {
+            return 0;
+        }
+        return notificationBatcher != null ? notificationBatcher.dispatchedCount(items.size()) : items.size();
     }
 
     @Override
     public long getItemId(int position) {
-        return itemIds == null ? position : itemIds.getItemId(position, items.get(position));
+        if (itemIds == null) {
+            return position;
+        }
+        int itemPosition = itemPosition(position);
+        return itemIds.getItemId(itemPosition, items.get(itemPosition));
     }
 
-    private static class WeakReferenceOnListChangedCallback<T> extends ObservableList.OnListChangedCallback<ObservableList<T>> {
+    private static class WeakReferenceOnListChangedCallback<T> extends ObservableList.OnListChangedCallback<ObservableList<T>> implements PayloadOnListChangedCallback {
         final WeakReference<BindingRecyclerViewAdapter<T>> adapterRef;
 
         WeakReferenceOnListChangedCallback(BindingRecyclerViewAdapter<T> adapter, ObservableList<T> items) {
@@ -223,6 +602,11 @@ public class BindingRecyclerViewAdapter<T> extends RecyclerView.Adapter<ViewHold
                 return;
             }
             Utils.ensureChangeOnMainThread();
+            adapter.recordNotification(BindingMetrics.Notification.CHANGED);
+            adapter.resolvedBindings.clear();
+            if (adapter.notificationBatcher != null) {
+                adapter.notificationBatcher.clearPending();
+            }
             adapter.notifyDataSetChanged();
         }
 
@@ -233,7 +617,21 @@ public class BindingRecyclerViewAdapter<T> extends RecyclerView.Adapter<ViewHold
                 return;
             }
             Utils.ensureChangeOnMainThread();
-            adapter.notifyItemRangeChanged(positionStart, itemCount);
+            adapter.recordNotification(BindingMetrics.Notification.ITEM_RANGE_CHANGED);
+            adapter.resolvedBindings.invalidate(positionStart, itemCount);
+            adapter.listUpdateCallback().onChanged(positionStart, itemCount, null);
+        }
+
+        @Override
+        public void onItemRangeChanged(ObservableList sender, int positionStart, int itemCount, Object payload) {
+            BindingRecyclerViewAdapter<T> adapter = adapterRef.get();
+            if (adapter == null) {
+                return;
+            }
+            Utils.ensureChangeOnMainThread();
+            adapter.recordNotification(BindingMetrics.Notification.ITEM_RANGE_CHANGED);
+            adapter.resolvedBindings.invalidate(positionStart, itemCount);
+            adapter.listUpdateCallback().onChanged(positionStart, itemCount, payload);
         }
 
         @Override
@@ -243,7 +641,9 @@ public class BindingRecyclerViewAdapter<T> extends RecyclerView.Adapter<ViewHold
                 return;
             }
             Utils.ensureChangeOnMainThread();
-            adapter.notifyItemRangeInserted(positionStart, itemCount);
+            adapter.recordNotification(BindingMetrics.Notification.ITEM_RANGE_INSERTED);
+            adapter.resolvedBindings.invalidateFrom(positionStart);
+            adapter.listUpdateCallback().onInserted(positionStart, itemCount);
         }
 
         @Override
@@ -253,9 +653,9 @@ public class BindingRecyclerViewAdapter<T> extends RecyclerView.Adapter<ViewHold
                 return;
             }
             Utils.ensureChangeOnMainThread();
-            for (int i = 0; i < itemCount; i++) {
-                adapter.notifyItemMoved(fromPosition + i, toPosition + i);
-            }
+            adapter.recordNotification(BindingMetrics.Notification.ITEM_RANGE_MOVED);
+            adapter.resolvedBindings.invalidateFrom(Math.min(fromPosition, toPosition));
+            RangeMoves.dispatch(adapter.listUpdateCallback(), fromPosition, toPosition, itemCount, adapter.maxItemMoves);
         }
 
         @Override
@@ -265,7 +665,31 @@ public class BindingRecyclerViewAdapter<T> extends RecyclerView.Adapter<ViewHold
                 return;
             }
             Utils.ensureChangeOnMainThread();
-            adapter.notifyItemRangeRemoved(positionStart, itemCount);
+            adapter.recordNotification(BindingMetrics.Notification.ITEM_RANGE_REMOVED);
+            adapter.resolvedBindings.invalidateFrom(positionStart);
+            adapter.listUpdateCallback().onRemoved(positionStart, itemCount);
+        }
+    }
+
+    private class AdapterNotifier implements ListUpdateCallback {
+        @Override
+        public void onInserted(int position, int count) {
+            notifyItemRangeInserted(position, count);
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            notifyItemRangeRemoved(position, count);
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            notifyItemMoved(fromPosition, toPosition);
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            notifyItemRangeChanged(position, count, payload);
         }
     }
 
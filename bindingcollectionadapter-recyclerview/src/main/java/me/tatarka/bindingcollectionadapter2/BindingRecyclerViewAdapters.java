@@ -11,8 +11,11 @@ import java.util.List;
 public class BindingRecyclerViewAdapters {
     // RecyclerView
     @SuppressWarnings("unchecked")
-    @BindingAdapter(value = {"itemBinding", "items", "adapter", "itemIds", "viewHolder"}, requireAll = false)
-    public static <T> void setAdapter(RecyclerView recyclerView, ItemBinding<T> itemBinding, List<T> items, BindingRecyclerViewAdapter<T> adapter, BindingRecyclerViewAdapter.ItemIds<? super T> itemIds, BindingRecyclerViewAdapter.ViewHolderFactory viewHolderFactory) {
+    @BindingAdapter(value = {"itemBinding", "items", "adapter", "itemIds", "viewHolder", "shareRecycledViews", "recycledViewPool", "maxRecycledViews"}, requireAll = false)
+    public static <T> void setAdapter(RecyclerView recyclerView, ItemBinding<T> itemBinding, List<T> items, BindingRecyclerViewAdapter<T> adapter, BindingRecyclerViewAdapter.ItemIds<? super T> itemIds, BindingRecyclerViewAdapter.ViewHolderFactory viewHolderFactory, boolean shareRecycledViews, RecyclerView.RecycledViewPool recycledViewPool, Integer maxRecycledViews) {
+        if (shareRecycledViews && recycledViewPool != null) {
+            throw new IllegalArgumentException("shareRecycledViews and recycledViewPool can't be used together");
+        }
         if (itemBinding == null) {
             throw new IllegalArgumentException("itemBinding must not be null");
         }
@@ -28,6 +31,20 @@ public class BindingRecyclerViewAdapters {
         adapter.setItems(items);
         adapter.setItemIds(itemIds);
         adapter.setViewHolderFactory(viewHolderFactory);
+        if (maxRecycledViews != null) {
+            adapter.setMaxRecycledViews(maxRecycledViews);
+        }
+        if (shareRecycledViews) {
+            recycledViewPool = RecycledViewPools.shared(recyclerView.getContext());
+        }
+        // A pool is only given to share it, which needs view types that don't depend on the
+        // adapter.
+        adapter.setStableViewTypes(recycledViewPool != null);
+        if (recycledViewPool != null) {
+            if (recyclerView.getRecycledViewPool() != recycledViewPool) {
+                recyclerView.setRecycledViewPool(recycledViewPool);
+            }
+        }
 
         if (oldAdapter != adapter) {
             recyclerView.setAdapter(adapter);
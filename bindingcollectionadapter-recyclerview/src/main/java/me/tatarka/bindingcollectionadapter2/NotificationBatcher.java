@@ -0,0 +1,134 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import android.support.v7.util.ListUpdateCallback;
+
+/**
+ * Collects list change notifications and coalesces each one into the previous pending one when
+ * possible, like consecutive inserts at the end of a list, instead of dispatching them right away.
+ * Changes that can't be merged cause the pending one to be dispatched. Call {@link
+ * #dispatchPending()} to dispatch what's left.
+ * <p>
+ * Until then the callback still sees the list as it was, {@link #dispatchedCount(int)} and {@link
+ * #currentPosition(int)} map to that. Removes are dispatched right away since the removed items
+ * are gone by the time they are notified, except when they remove items of the pending insert.
+ */
+class NotificationBatcher implements ListUpdateCallback {
+    private static final int TYPE_NONE = 0;
+    private static final int TYPE_INSERT = 1;
+    private static final int TYPE_CHANGE = 2;
+
+    private final ListUpdateCallback callback;
+    private int lastType = TYPE_NONE;
+    private int lastStart;
+    private int lastCount;
+    private Object lastPayload;
+
+    NotificationBatcher(ListUpdateCallback callback) {
+        this.callback = callback;
+    }
+
+    /**
+     * Returns true if there is a notification that hasn't been dispatched yet.
+     */
+    boolean hasPending() {
+        return lastType != TYPE_NONE;
+    }
+
+    /**
+     * Returns the item count the callback has been told about, given the current one.
+     */
+    int dispatchedCount(int count) {
+        return lastType == TYPE_INSERT ? count - lastCount : count;
+    }
+
+    /**
+     * Returns the current position of the item at the given position the callback has been told
+     * about.
+     */
+    int currentPosition(int dispatchedPosition) {
+        return lastType == TYPE_INSERT && dispatchedPosition >= lastStart
+                ? dispatchedPosition + lastCount
+                : dispatchedPosition;
+    }
+
+    /**
+     * Dispatches the pending notification, if any.
+     */
+    void dispatchPending() {
+        int type = lastType;
+        Object payload = lastPayload;
+        // Cleared first so the callback sees the current list.
+        lastType = TYPE_NONE;
+        lastPayload = null;
+        switch (type) {
+            case TYPE_INSERT:
+                callback.onInserted(lastStart, lastCount);
+                break;
+            case TYPE_CHANGE:
+                callback.onChanged(lastStart, lastCount, payload);
+                break;
+        }
+    }
+
+    /**
+     * Drops the pending notification without dispatching it, for when the whole data set changed.
+     */
+    void clearPending() {
+        lastType = TYPE_NONE;
+        lastPayload = null;
+    }
+
+    @Override
+    public void onInserted(int position, int count) {
+        if (lastType == TYPE_INSERT && position >= lastStart && position <= lastStart + lastCount) {
+            lastCount += count;
+            return;
+        }
+        dispatchPending();
+        set(TYPE_INSERT, position, count, null);
+    }
+
+    @Override
+    public void onRemoved(int position, int count) {
+        if (lastType == TYPE_INSERT && position >= lastStart && position + count <= lastStart + lastCount) {
+            // Removing items that were just inserted, they were never seen.
+            lastCount -= count;
+            if (lastCount == 0) {
+                lastType = TYPE_NONE;
+            }
+            return;
+        }
+        dispatchPending();
+        callback.onRemoved(position, count);
+    }
+
+    @Override
+    public void onMoved(int fromPosition, int toPosition) {
+        dispatchPending();
+        callback.onMoved(fromPosition, toPosition);
+    }
+
+    @Override
+    public void onChanged(int position, int count, Object payload) {
+        if (lastType == TYPE_INSERT && position >= lastStart && position + count <= lastStart + lastCount) {
+            // Changing items that were just inserted, they will be bound fresh anyway.
+            return;
+        }
+        if (lastType == TYPE_CHANGE && lastPayload == payload
+                && position <= lastStart + lastCount && position + count >= lastStart) {
+            int end = Math.max(lastStart + lastCount, position + count);
+            lastStart = Math.min(lastStart, position);
+            lastCount = end - lastStart;
+            return;
+        }
+        dispatchPending();
+        set(TYPE_CHANGE, position, count, payload);
+    }
+
+    private void set(int type, int start, int count, Object payload) {
+        lastType = type;
+        lastStart = start;
+        lastCount = count;
+        lastPayload = payload;
+    }
+}
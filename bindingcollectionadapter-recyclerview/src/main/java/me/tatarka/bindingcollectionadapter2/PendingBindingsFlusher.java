@@ -0,0 +1,150 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import android.databinding.ViewDataBinding;
+import android.support.annotation.Nullable;
+import android.support.v4.view.ViewCompat;
+import android.view.View;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * Executes the pending bindings of bound items within a time budget per frame. While the current
+ * frame's budget lasts a binding is executed right away, before its view is measured. Bindings
+ * over budget are executed in an animation callback at the start of the next frame, which runs
+ * before that frame's layout. Only those show their previous content for a frame, and are laid
+ * out again if their size changes.
+ */
+class PendingBindingsFlusher implements Runnable {
+    private final LinkedHashSet<ViewDataBinding> pending = new LinkedHashSet<>();
+    private long frameBudgetNanos;
+    // Time spent executing bindings since the start of the current frame.
+    private long spentNanos;
+    private boolean scheduled;
+    private boolean flushing;
+    @Nullable
+    private View view;
+
+    PendingBindingsFlusher(long frameBudgetNanos) {
+        this.frameBudgetNanos = frameBudgetNanos;
+    }
+
+    void setFrameBudgetNanos(long frameBudgetNanos) {
+        this.frameBudgetNanos = frameBudgetNanos;
+    }
+
+    /**
+     * Starts executing bindings on the frames of the given view.
+     */
+    void attach(View view) {
+        if (this.view == view) {
+            return;
+        }
+        detach();
+        this.view = view;
+    }
+
+    /**
+     * Stops executing bindings on the frames of the view and executes all pending bindings.
+     */
+    void detach() {
+        if (view != null) {
+            view.removeCallbacks(this);
+            view = null;
+        }
+        scheduled = false;
+        spentNanos = 0;
+        flush(Long.MAX_VALUE);
+    }
+
+    /**
+     * Executes the pending bindings of the given binding now if the current frame's budget isn't
+     * used up, otherwise at the start of the next frame.
+     */
+    void add(ViewDataBinding binding) {
+        if (view == null) {
+            execute(binding);
+            return;
+        }
+        if (spentNanos < frameBudgetNanos) {
+            pending.remove(binding);
+            long start = System.nanoTime();
+            execute(binding);
+            spentNanos += System.nanoTime() - start;
+        } else {
+            pending.add(binding);
+        }
+        // Starts the next frame's budget, and executes what's left over before its layout.
+        schedule();
+    }
+
+    /**
+     * Returns true if the given binding is waiting to be executed.
+     */
+    boolean isPending(ViewDataBinding binding) {
+        return pending.contains(binding);
+    }
+
+    /**
+     * Returns true if pending bindings are currently being executed.
+     */
+    boolean isFlushing() {
+        return flushing;
+    }
+
+    /**
+     * Called at the start of a frame, before its layout.
+     */
+    @Override
+    public void run() {
+        scheduled = false;
+        spentNanos = 0;
+        if (pending.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        flush(start + frameBudgetNanos);
+        spentNanos = System.nanoTime() - start;
+        schedule();
+    }
+
+    /**
+     * Posts {@link #run()} to the start of the next frame.
+     */
+    void postOnAnimation(View view) {
+        ViewCompat.postOnAnimation(view, this);
+    }
+
+    private void schedule() {
+        if (!scheduled && view != null) {
+            scheduled = true;
+            postOnAnimation(view);
+        }
+    }
+
+    /**
+     * Executes pending bindings until the deadline, at least one is always executed.
+     */
+    private void flush(long deadlineNanos) {
+        while (!pending.isEmpty()) {
+            // A new iterator each time since executing may add bindings.
+            Iterator<ViewDataBinding> iterator = pending.iterator();
+            ViewDataBinding binding = iterator.next();
+            iterator.remove();
+            execute(binding);
+            if (deadlineNanos != Long.MAX_VALUE && System.nanoTime() >= deadlineNanos) {
+                break;
+            }
+        }
+    }
+
+    private void execute(ViewDataBinding binding) {
+        boolean wasFlushing = flushing;
+        flushing = true;
+        try {
+            binding.executePendingBindings();
+        } finally {
+            flushing = wasFlushing;
+        }
+    }
+}
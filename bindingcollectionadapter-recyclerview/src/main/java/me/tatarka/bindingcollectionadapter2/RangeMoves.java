@@ -0,0 +1,57 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import android.support.v7.util.ListUpdateCallback;
+
+/**
+ * Translates a block move from {@link android.databinding.ObservableList.OnListChangedCallback#onItemRangeMoved(android.databinding.ObservableList,
+ * int, int, int)} into the single item moves a {@link android.support.v7.widget.RecyclerView}
+ * understands.
+ */
+class RangeMoves {
+
+    private RangeMoves() {
+    }
+
+    /**
+     * Dispatches the move of {@code count} items at {@code fromPosition} so that the first one ends
+     * up at {@code toPosition}. Moving a block is the same as moving the items it passes over the
+     * other way, so whichever takes fewer single moves is used. If that is still more than {@code
+     * maxMoves}, the block is dispatched as a remove and an insert instead.
+     */
+    static void dispatch(ListUpdateCallback callback, int fromPosition, int toPosition, int count, int maxMoves) {
+        if (count <= 0 || fromPosition == toPosition) {
+            return;
+        }
+        int distance = Math.abs(toPosition - fromPosition);
+        if (Math.min(count, distance) > maxMoves) {
+            callback.onRemoved(fromPosition, count);
+            callback.onInserted(toPosition, count);
+            return;
+        }
+        if (fromPosition > toPosition) {
+            if (count <= distance) {
+                // Move the block backwards one item at a time.
+                for (int i = 0; i < count; i++) {
+                    callback.onMoved(fromPosition + i, toPosition + i);
+                }
+            } else {
+                // Move the items in between forwards, past the block.
+                for (int i = 0; i < distance; i++) {
+                    callback.onMoved(toPosition, fromPosition + count - 1);
+                }
+            }
+        } else {
+            if (count <= distance) {
+                // Move the block forwards one item at a time.
+                for (int i = 0; i < count; i++) {
+                    callback.onMoved(fromPosition, toPosition + count - 1);
+                }
+            } else {
+                // Move the items in between backwards, before the block.
+                for (int i = 0; i < distance; i++) {
+                    callback.onMoved(fromPosition + count + i, fromPosition + i);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import android.content.Context;
+import android.support.v7.widget.RecyclerView;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
+/**
+ * Helpers for sharing a {@link RecyclerView.RecycledViewPool} between recycler views, for example
+ * nested horizontal lists. Sharing only works between {@link BindingRecyclerViewAdapter}s with
+ * {@link BindingRecyclerViewAdapter#setStableViewTypes(boolean)} enabled.
+ */
+public final class RecycledViewPools {
+    // The pools are only weakly referenced since their views reference the context.
+    private static final WeakHashMap<Context, WeakReference<BindingRecycledViewPool>> sharedPools = new WeakHashMap<>();
+
+    private RecycledViewPools() {
+    }
+
+    /**
+     * Returns the pool shared by all recycler views in the given context. It lives as long as a
+     * recycler view uses it and is {@link BindingRecycledViewPool#setAutoSize(boolean) auto sized}.
+     * This must be called on the main thread.
+     */
+    public static BindingRecycledViewPool shared(Context context) {
+        WeakReference<BindingRecycledViewPool> poolRef = sharedPools.get(context);
+        BindingRecycledViewPool pool = poolRef != null ? poolRef.get() : null;
+        if (pool == null) {
+            pool = new BindingRecycledViewPool();
+            pool.setAutoSize(true);
+            sharedPools.put(context, new WeakReference<>(pool));
+        }
+        return pool;
+    }
+}
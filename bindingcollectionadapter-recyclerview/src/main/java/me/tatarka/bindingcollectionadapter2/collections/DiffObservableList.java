@@ -1,28 +1,46 @@
 package me.tatarka.bindingcollectionadapter2.collections;
 
-import android.databinding.ListChangeRegistry;
 import android.databinding.ObservableList;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.support.v7.util.DiffUtil;
 import android.support.v7.util.ListUpdateCallback;
 
 import java.util.AbstractList;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * An {@link ObservableList} that uses {@link DiffUtil} to calculate and dispatch it's change
- * updates.
+ * updates. Use {@link #submit(List)} to calculate the diff on a background thread.
+ * <p>
+ * The lists given to this class are held directly, without a copy, so they must not be modified
+ * afterwards.
  */
 public class DiffObservableList<T> extends AbstractList<T> implements ObservableList<T> {
 
-    private final Object LIST_LOCK = new Object();
-    private List<T> list = Collections.emptyList();
+    private static ExecutorService defaultDiffExecutor;
+
+    // Never modified in place, only replaced, so it can be read from any thread as a snapshot.
+    private volatile List<T> list = Collections.emptyList();
     private final Callback<T> callback;
     private final boolean detectMoves;
-    private final ListChangeRegistry listeners = new ListChangeRegistry();
+    private final PayloadListChangeRegistry listeners = new PayloadListChangeRegistry();
     private final ObservableListUpdateCallback listCallback = new ObservableListUpdateCallback();
+    @Nullable
+    private final Executor diffExecutor;
+    @Nullable
+    private final Executor mainThreadExecutor;
+    // Incremented on the main thread for every update, a submitted diff is only applied if no newer
+    // update has happened since.
+    private volatile int maxScheduledGeneration;
 
     /**
      * Creates a new DiffObservableList of type T.
@@ -40,8 +58,37 @@ public class DiffObservableList<T> extends AbstractList<T> implements Observable
      * @param detectMoves True if DiffUtil should try to detect moved items, false otherwise.
      */
     public DiffObservableList(Callback<T> callback, boolean detectMoves) {
+        this(callback, detectMoves, null, null);
+    }
+
+    /**
+     * Creates a new DiffObservableList of type T.
+     *
+     * @param callback     The callback that controls the behavior of the DiffObservableList.
+     * @param detectMoves  True if DiffUtil should try to detect moved items, false otherwise.
+     * @param diffExecutor The executor {@link #submit(List)} calculates diffs on. If null, a shared
+     *                     background thread is used.
+     */
+    public DiffObservableList(Callback<T> callback, boolean detectMoves, @Nullable Executor diffExecutor) {
+        this(callback, detectMoves, diffExecutor, null);
+    }
+
+    /**
+     * Creates a new DiffObservableList of type T.
+     *
+     * @param callback           The callback that controls the behavior of the DiffObservableList.
+     * @param detectMoves        True if DiffUtil should try to detect moved items, false
+     *                           otherwise.
+     * @param diffExecutor       The executor {@link #submit(List)} calculates diffs on. If null, a
+     *                           shared background thread is used.
+     * @param mainThreadExecutor The executor {@link #submit(List)} applies results on. If null,
+     *                           results are posted to the main looper.
+     */
+    public DiffObservableList(Callback<T> callback, boolean detectMoves, @Nullable Executor diffExecutor, @Nullable Executor mainThreadExecutor) {
         this.callback = callback;
         this.detectMoves = detectMoves;
+        this.diffExecutor = diffExecutor;
+        this.mainThreadExecutor = mainThreadExecutor;
     }
 
     /**
@@ -52,11 +99,7 @@ public class DiffObservableList<T> extends AbstractList<T> implements Observable
      * list into the given one.
      */
     public DiffUtil.DiffResult calculateDiff(final List<T> newItems) {
-        final ArrayList<T> frozenList;
-        synchronized (LIST_LOCK) {
-            frozenList = new ArrayList<>(list);
-        }
-        return doCalculateDiff(frozenList, newItems);
+        return doCalculateDiff(list, newItems);
     }
 
     private DiffUtil.DiffResult doCalculateDiff(final List<T> oldItems, final List<T> newItems) {
@@ -84,6 +127,17 @@ public class DiffObservableList<T> extends AbstractList<T> implements Observable
                 T newItem = newItems.get(newItemPosition);
                 return callback.areContentsTheSame(oldItem, newItem);
             }
+
+            @Nullable
+            @Override
+            public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+                if (!(callback instanceof ChangePayloadCallback)) {
+                    return null;
+                }
+                T oldItem = oldItems.get(oldItemPosition);
+                T newItem = newItems.get(newItemPosition);
+                return ((ChangePayloadCallback<T>) callback).getChangePayload(oldItem, newItem);
+            }
         }, detectMoves);
     }
 
@@ -96,9 +150,8 @@ public class DiffObservableList<T> extends AbstractList<T> implements Observable
      */
     @MainThread
     public void update(List<T> newItems, DiffUtil.DiffResult diffResult) {
-        synchronized (LIST_LOCK) {
-            list = newItems;
-        }
+        maxScheduledGeneration += 1;
+        list = snapshot(newItems);
         diffResult.dispatchUpdatesTo(listCallback);
     }
 
@@ -114,9 +167,95 @@ public class DiffObservableList<T> extends AbstractList<T> implements Observable
      */
     @MainThread
     public void update(List<T> newItems) {
-        DiffUtil.DiffResult diffResult = doCalculateDiff(list, newItems);
-        list = newItems;
-        diffResult.dispatchUpdatesTo(listCallback);
+        maxScheduledGeneration += 1;
+        List<T> oldItems = list;
+        KeyedDiff keyedDiff = calculateKeyedDiff(oldItems, newItems);
+        DiffUtil.DiffResult diffResult = keyedDiff == null ? doCalculateDiff(oldItems, newItems) : null;
+        list = snapshot(newItems);
+        dispatchUpdates(keyedDiff, diffResult);
+    }
+
+    /**
+     * Sets this list to the given items, calculating the diff on a background thread and then
+     * dispatching change notifications on the main thread. If this list is updated again before
+     * the diff completes, the stale result is dropped and only the latest list is applied.
+     *
+     * @param newItems The items to set this list to.
+     */
+    @MainThread
+    public void submit(final List<T> newItems) {
+        final int runGeneration = ++maxScheduledGeneration;
+        final List<T> oldItems = list;
+        diffExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                if (runGeneration != maxScheduledGeneration) {
+                    return;
+                }
+                final KeyedDiff keyedDiff = calculateKeyedDiff(oldItems, newItems);
+                final DiffUtil.DiffResult diffResult = keyedDiff == null ? doCalculateDiff(oldItems, newItems) : null;
+                mainThreadExecutor().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (runGeneration != maxScheduledGeneration) {
+                            return;
+                        }
+                        list = snapshot(newItems);
+                        dispatchUpdates(keyedDiff, diffResult);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Returns the keyed diff if the callback is a {@link KeyedCallback}, or null if {@code DiffUtil}
+     * should be used instead.
+     */
+    @Nullable
+    private KeyedDiff calculateKeyedDiff(List<T> oldItems, List<T> newItems) {
+        if (!(callback instanceof KeyedCallback)) {
+            return null;
+        }
+        return KeyedDiff.calculate(oldItems, snapshot(newItems), (KeyedCallback<T>) callback, detectMoves);
+    }
+
+    private void dispatchUpdates(@Nullable KeyedDiff keyedDiff, @Nullable DiffUtil.DiffResult diffResult) {
+        if (keyedDiff != null) {
+            keyedDiff.dispatchUpdatesTo(listCallback);
+        } else {
+            diffResult.dispatchUpdatesTo(listCallback);
+        }
+    }
+
+    private static <T> List<T> snapshot(List<T> items) {
+        return items == null ? Collections.<T>emptyList() : Collections.unmodifiableList(items);
+    }
+
+    private Executor diffExecutor() {
+        if (diffExecutor != null) {
+            return diffExecutor;
+        }
+        synchronized (DiffObservableList.class) {
+            if (defaultDiffExecutor == null) {
+                defaultDiffExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                    @Override
+                    public Thread newThread(@NonNull Runnable r) {
+                        Thread thread = new Thread(r, "DiffObservableList");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+            }
+            return defaultDiffExecutor;
+        }
+    }
+
+    private Executor mainThreadExecutor() {
+        if (mainThreadExecutor != null) {
+            return mainThreadExecutor;
+        }
+        return MainThreadExecutor.INSTANCE;
     }
 
 
@@ -173,11 +312,60 @@ public class DiffObservableList<T> extends AbstractList<T> implements Observable
         boolean areContentsTheSame(T oldItem, T newItem);
     }
 
+    /**
+     * A {@link Callback} for items with a unique key. {@link #update(List)} and {@link
+     * #submit(List)} match items by their key instead of running {@link DiffUtil}, which stays fast
+     * when most of the items are reordered. If either list contains duplicate keys, it falls back
+     * to {@code DiffUtil} and {@link #areItemsTheSame(Object, Object)}. If the list was created
+     * without move detection, reordered items are removed and inserted instead of moved.
+     */
+    public interface KeyedCallback<T> extends Callback<T> {
+
+        /**
+         * Returns the key that identifies the given item across lists, like its id. Keys are
+         * compared with {@link Object#equals(Object)} and {@link Object#hashCode()}.
+         *
+         * @param item The item.
+         * @return The key of the item.
+         */
+        Object getKey(T item);
+    }
+
+    /**
+     * A {@link Callback} that describes content changes with a payload. The payload is passed to
+     * list callbacks implementing {@link PayloadOnListChangedCallback}, and on to {@code
+     * BindingRecyclerViewAdapter} so it can rebind only what changed.
+     */
+    public interface ChangePayloadCallback<T> extends Callback<T> {
+
+        /**
+         * Called when {@link #areItemsTheSame(T, T)} returns {@code true} and {@link
+         * #areContentsTheSame(T, T)} returns {@code false} for two items.
+         *
+         * @param oldItem The old item.
+         * @param newItem The new item which replaces the old item.
+         * @return A payload object that represents the change between the two items, or null.
+         */
+        @Nullable
+        Object getChangePayload(T oldItem, T newItem);
+    }
+
+    private static class MainThreadExecutor implements Executor {
+        static final MainThreadExecutor INSTANCE = new MainThreadExecutor();
+
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void execute(@NonNull Runnable command) {
+            handler.post(command);
+        }
+    }
+
     class ObservableListUpdateCallback implements ListUpdateCallback {
 
         @Override
         public void onChanged(int position, int count, Object payload) {
-            listeners.notifyChanged(DiffObservableList.this, position, count);
+            listeners.notifyChanged(DiffObservableList.this, position, count, payload);
         }
 
         @Override
@@ -0,0 +1,305 @@
+package me.tatarka.bindingcollectionadapter2.collections;
+
+import android.support.annotation.Nullable;
+import android.support.v7.util.ListUpdateCallback;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Calculates the updates between two lists whose items have unique keys, see {@link
+ * DiffObservableList.KeyedCallback}. Matching items by key with a hash map avoids the quadratic
+ * worst case of {@link android.support.v7.util.DiffUtil} on large reorderings. The items that stay
+ * in place are the longest increasing subsequence of their new positions, every other kept item is
+ * dispatched as a single move, so the whole calculation is O(n log n). Without move detection those
+ * items are removed and inserted instead, like {@code DiffUtil} does.
+ */
+final class KeyedDiff {
+    private static final int INSERT = 0;
+    private static final int REMOVE = 1;
+    private static final int MOVE = 2;
+    private static final int CHANGE = 3;
+
+    // Triples of (type, a, b).
+    private int[] ops = new int[3 * 8];
+    private int opCount;
+    // The payload of each change operation, indexed by op.
+    private Object[] payloads;
+
+    private KeyedDiff() {
+    }
+
+    /**
+     * Returns the updates to convert {@code oldItems} into {@code newItems} or null if either list
+     * contains duplicate keys, in which case the caller should fall back to {@code DiffUtil}. If
+     * {@code detectMoves} is false, items that would be moved are removed and inserted instead.
+     */
+    @Nullable
+    static <T> KeyedDiff calculate(List<T> oldItems, List<T> newItems, DiffObservableList.KeyedCallback<T> callback, boolean detectMoves) {
+        int oldSize = oldItems.size();
+        int newSize = newItems.size();
+
+        HashMap<Object, Integer> newIndexes = new HashMap<>(Math.max(newSize * 4 / 3 + 1, 16));
+        for (int i = 0; i < newSize; i++) {
+            if (newIndexes.put(callback.getKey(newItems.get(i)), i) != null) {
+                return null;
+            }
+        }
+        // The old index of each new item, or -1 if it's inserted.
+        int[] newToOld = new int[newSize];
+        Arrays.fill(newToOld, -1);
+        // The new index of each old item, or -1 if it's removed.
+        int[] oldToNew = new int[oldSize];
+        int keptCount = 0;
+        for (int i = 0; i < oldSize; i++) {
+            Integer newIndex = newIndexes.get(callback.getKey(oldItems.get(i)));
+            if (newIndex == null) {
+                oldToNew[i] = -1;
+            } else {
+                if (newToOld[newIndex] != -1) {
+                    return null;
+                }
+                newToOld[newIndex] = i;
+                oldToNew[i] = newIndex;
+                keptCount++;
+            }
+        }
+        if (!detectMoves) {
+            keptCount = dropMovedItems(oldToNew, newToOld, keptCount);
+        }
+
+        KeyedDiff diff = new KeyedDiff();
+
+        // Remove from the end so earlier positions stay valid.
+        for (int i = oldSize - 1; i >= 0; ) {
+            if (oldToNew[i] != -1) {
+                i--;
+                continue;
+            }
+            int end = i;
+            while (i >= 0 && oldToNew[i] == -1) {
+                i--;
+            }
+            diff.add(REMOVE, i + 1, end - i);
+        }
+
+        // The new index of each kept item, in old order. This is the list after removals.
+        int[] kept = new int[keptCount];
+        // The position in kept of each new item, or -1 if it's inserted.
+        int[] newToKept = new int[newSize];
+        Arrays.fill(newToKept, -1);
+        for (int i = 0, k = 0; i < oldSize; i++) {
+            if (oldToNew[i] != -1) {
+                kept[k] = oldToNew[i];
+                newToKept[oldToNew[i]] = k;
+                k++;
+            }
+        }
+        boolean[] anchor = longestIncreasingSubsequence(kept);
+
+        // Lay out a slot for every position an item may occupy while the updates are applied.
+        // Between each pair of anchors (the items that don't move) first come the slots of the new
+        // items that end up there, in new order, then the slots of the kept items that are still
+        // there waiting to be moved, in old order. The current position of an item is then the
+        // number of occupied slots before it.
+        int[] newSlot = new int[newSize];
+        int[] keptSlot = new int[keptCount];
+        int slotCount = 0;
+        for (int j = 0, k = 0; ; ) {
+            while (j < newSize && !(newToKept[j] != -1 && anchor[newToKept[j]])) {
+                newSlot[j++] = slotCount++;
+            }
+            while (k < keptCount && !anchor[k]) {
+                keptSlot[k++] = slotCount++;
+            }
+            if (j == newSize) {
+                break;
+            }
+            newSlot[j++] = slotCount;
+            keptSlot[k++] = slotCount;
+            slotCount++;
+        }
+        int[] occupied = new int[slotCount + 1];
+        for (int k = 0; k < keptCount; k++) {
+            increment(occupied, keptSlot[k], 1);
+        }
+
+        for (int j = 0; j < newSize; j++) {
+            int k = newToKept[j];
+            if (k == -1) {
+                int position = countBefore(occupied, newSlot[j]);
+                increment(occupied, newSlot[j], 1);
+                diff.addOrExtend(INSERT, position);
+            } else if (!anchor[k]) {
+                int from = countBefore(occupied, keptSlot[k]);
+                increment(occupied, keptSlot[k], -1);
+                int to = countBefore(occupied, newSlot[j]);
+                increment(occupied, newSlot[j], 1);
+                if (from != to) {
+                    diff.add(MOVE, from, to);
+                }
+            }
+        }
+
+        // All positions are final now.
+        DiffObservableList.ChangePayloadCallback<T> payloadCallback = callback instanceof DiffObservableList.ChangePayloadCallback
+                ? (DiffObservableList.ChangePayloadCallback<T>) callback : null;
+        for (int j = 0; j < newSize; j++) {
+            int i = newToOld[j];
+            if (i != -1) {
+                T oldItem = oldItems.get(i);
+                T newItem = newItems.get(j);
+                if (!callback.areContentsTheSame(oldItem, newItem)) {
+                    Object payload = payloadCallback != null ? payloadCallback.getChangePayload(oldItem, newItem) : null;
+                    diff.addChange(j, payload);
+                }
+            }
+        }
+        return diff;
+    }
+
+    /**
+     * Treats every kept item that isn't part of the longest run staying in order as removed and
+     * inserted, so no moves are needed. Returns the new number of kept items.
+     */
+    private static int dropMovedItems(int[] oldToNew, int[] newToOld, int keptCount) {
+        int[] kept = new int[keptCount];
+        for (int i = 0, k = 0; i < oldToNew.length; i++) {
+            if (oldToNew[i] != -1) {
+                kept[k++] = oldToNew[i];
+            }
+        }
+        boolean[] anchor = longestIncreasingSubsequence(kept);
+        int anchorCount = 0;
+        for (int i = 0, k = 0; i < oldToNew.length; i++) {
+            if (oldToNew[i] != -1) {
+                if (anchor[k++]) {
+                    anchorCount++;
+                } else {
+                    newToOld[oldToNew[i]] = -1;
+                    oldToNew[i] = -1;
+                }
+            }
+        }
+        return anchorCount;
+    }
+
+    /**
+     * Dispatches the update operations to the given callback.
+     */
+    void dispatchUpdatesTo(ListUpdateCallback callback) {
+        for (int i = 0; i < opCount; i += 3) {
+            int a = ops[i + 1];
+            int b = ops[i + 2];
+            switch (ops[i]) {
+                case INSERT:
+                    callback.onInserted(a, b);
+                    break;
+                case REMOVE:
+                    callback.onRemoved(a, b);
+                    break;
+                case MOVE:
+                    callback.onMoved(a, b);
+                    break;
+                case CHANGE:
+                    callback.onChanged(a, b, payloadAt(i / 3));
+                    break;
+            }
+        }
+    }
+
+    private void add(int type, int a, int b) {
+        if (opCount + 3 > ops.length) {
+            ops = Arrays.copyOf(ops, ops.length * 2);
+        }
+        ops[opCount] = type;
+        ops[opCount + 1] = a;
+        ops[opCount + 2] = b;
+        opCount += 3;
+    }
+
+    /**
+     * Adds a single item range operation, merging it into the previous one if it directly follows
+     * it.
+     */
+    private void addOrExtend(int type, int position) {
+        if (opCount > 0 && ops[opCount - 3] == type && ops[opCount - 2] + ops[opCount - 1] == position) {
+            ops[opCount - 1] += 1;
+        } else {
+            add(type, position, 1);
+        }
+    }
+
+    /**
+     * Adds a single item change, merging it into the previous one if it directly follows it with
+     * the same payload.
+     */
+    private void addChange(int position, Object payload) {
+        if (opCount > 0 && ops[opCount - 3] == CHANGE && ops[opCount - 2] + ops[opCount - 1] == position && payloadAt(opCount / 3 - 1) == payload) {
+            ops[opCount - 1] += 1;
+            return;
+        }
+        add(CHANGE, position, 1);
+        if (payload != null) {
+            if (payloads == null) {
+                payloads = new Object[ops.length / 3];
+            } else if (payloads.length < ops.length / 3) {
+                payloads = Arrays.copyOf(payloads, ops.length / 3);
+            }
+            payloads[opCount / 3 - 1] = payload;
+        }
+    }
+
+    private Object payloadAt(int op) {
+        return payloads != null && op < payloads.length ? payloads[op] : null;
+    }
+
+    /**
+     * Returns which of the given values are part of a longest strictly increasing subsequence.
+     */
+    private static boolean[] longestIncreasingSubsequence(int[] values) {
+        int n = values.length;
+        int[] tails = new int[n];
+        int[] previous = new int[n];
+        int length = 0;
+        for (int i = 0; i < n; i++) {
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[tails[mid]] < values[i]) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == length) {
+                length++;
+            }
+        }
+        boolean[] result = new boolean[n];
+        for (int i = length > 0 ? tails[length - 1] : -1; i != -1; i = previous[i]) {
+            result[i] = true;
+        }
+        return result;
+    }
+
+    // Fenwick tree helpers over slot occupancy, tree is 1-indexed.
+
+    private static void increment(int[] tree, int slot, int delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private static int countBefore(int[] tree, int slot) {
+        int sum = 0;
+        for (int i = slot; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,85 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import android.databinding.ViewDataBinding;
+import android.support.annotation.LayoutRes;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(JUnit4.class)
+public class BindingRecyclerViewAdapterTest {
+
+    @Test
+    public void setItemIdsOnNewAdapter() {
+        BindingRecyclerViewAdapter<String> adapter = new BindingRecyclerViewAdapter<>();
+        adapter.setItemIds(new BindingRecyclerViewAdapter.ItemIds<String>() {
+            @Override
+            public long getItemId(int position, String item) {
+                return item.hashCode();
+            }
+        });
+
+        assertThat(adapter.hasStableIds()).isTrue();
+
+        adapter.setItemIds(null);
+
+        assertThat(adapter.hasStableIds()).isFalse();
+    }
+
+    @Test
+    public void replacedItemIsResolvedAgain() {
+        BindingRecyclerViewAdapter<String> adapter = new BindingRecyclerViewAdapter<>();
+        adapter.setItemBinding(ItemBinding.of(new OnItemBind<String>() {
+            @Override
+            public void onItemBind(ItemBinding itemBinding, int position, String item) {
+                itemBinding.set(1, item.length());
+            }
+        }));
+        List<String> items = new ArrayList<>(Arrays.asList("a", "bb"));
+        adapter.setItems(items);
+
+        assertThat(adapter.getItemViewType(0)).isEqualTo(1);
+
+        items.set(0, "ccc");
+        adapter.notifyItemChanged(0);
+
+        assertThat(adapter.getItemViewType(0)).isEqualTo(3);
+        assertThat(adapter.getItemViewType(1)).isEqualTo(2);
+    }
+
+    @Test
+    public void subclassBindingItsOwnItemIsBound() {
+        BindingRecyclerViewAdapter<String> adapter = new BindingRecyclerViewAdapter<String>() {
+            @Override
+            public void onBindBinding(ViewDataBinding binding, int variableId, @LayoutRes int layoutRes, int position, String item) {
+                super.onBindBinding(binding, variableId, layoutRes, position, item + "!");
+            }
+        };
+        adapter.setItemBinding(ItemBinding.of(new OnItemBind<String>() {
+            @Override
+            public void onItemBind(ItemBinding itemBinding, int position, String item) {
+                itemBinding.set(item.length(), 10);
+            }
+        }));
+        adapter.setItems(Arrays.asList("a", "bb"));
+        ViewDataBinding binding = mock(ViewDataBinding.class);
+        when(binding.setVariable(anyInt(), any())).thenReturn(true);
+
+        adapter.onBindBinding(binding, 2, 10, 1, "bb");
+
+        verify(binding).setVariable(2, "bb!");
+        verify(binding).executePendingBindings();
+    }
+}
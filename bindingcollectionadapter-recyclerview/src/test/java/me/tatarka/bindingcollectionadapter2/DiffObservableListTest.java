@@ -6,13 +6,25 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
 
 import me.tatarka.bindingcollectionadapter2.collections.DiffObservableList;
+import me.tatarka.bindingcollectionadapter2.collections.MergeObservableList;
+import me.tatarka.bindingcollectionadapter2.collections.PayloadOnListChangedCallback;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.withSettings;
 
 @RunWith(JUnit4.class)
 @SuppressWarnings("unchecked")
@@ -70,7 +82,198 @@ public class DiffObservableListTest {
                 .containsExactly(new Item("1", "b"));
         verify(callback).onItemRangeChanged(list, 0, 1);
     }
-    
+
+    @Test
+    public void submitAppliesDiffOnMainThreadExecutor() {
+        QueueExecutor diffExecutor = new QueueExecutor();
+        QueueExecutor mainThreadExecutor = new QueueExecutor();
+        DiffObservableList<Item> list = new DiffObservableList<>(Item.DIFF_CALLBACK, true, diffExecutor, mainThreadExecutor);
+        ObservableList.OnListChangedCallback callback = mock(ObservableList.OnListChangedCallback.class);
+        list.addOnListChangedCallback(callback);
+        list.submit(Arrays.asList(new Item("1", "a")));
+        diffExecutor.runAll();
+
+        assertThat(list).isEmpty();
+
+        mainThreadExecutor.runAll();
+
+        assertThat(list)
+                .hasSize(1)
+                .containsExactly(new Item("1", "a"));
+        verify(callback).onItemRangeInserted(list, 0, 1);
+    }
+
+    @Test
+    public void submitDropsSupersededDiffs() {
+        QueueExecutor diffExecutor = new QueueExecutor();
+        QueueExecutor mainThreadExecutor = new QueueExecutor();
+        DiffObservableList<Item> list = new DiffObservableList<>(Item.DIFF_CALLBACK, true, diffExecutor, mainThreadExecutor);
+        ObservableList.OnListChangedCallback callback = mock(ObservableList.OnListChangedCallback.class);
+        list.addOnListChangedCallback(callback);
+        list.submit(Arrays.asList(new Item("1", "a")));
+        diffExecutor.runAll();
+        list.submit(Arrays.asList(new Item("1", "a"), new Item("2", "b")));
+        diffExecutor.runAll();
+        mainThreadExecutor.runAll();
+
+        assertThat(list)
+                .hasSize(2)
+                .containsExactly(new Item("1", "a"), new Item("2", "b"));
+        verify(callback).onItemRangeInserted(list, 0, 2);
+        verifyNoMoreInteractions(callback);
+    }
+
+    @Test
+    public void updateDropsPendingSubmit() {
+        QueueExecutor diffExecutor = new QueueExecutor();
+        QueueExecutor mainThreadExecutor = new QueueExecutor();
+        DiffObservableList<Item> list = new DiffObservableList<>(Item.DIFF_CALLBACK, true, diffExecutor, mainThreadExecutor);
+        list.submit(Arrays.asList(new Item("1", "a")));
+        list.update(Arrays.asList(new Item("2", "b")));
+        diffExecutor.runAll();
+        mainThreadExecutor.runAll();
+
+        assertThat(list)
+                .hasSize(1)
+                .containsExactly(new Item("2", "b"));
+    }
+
+    @Test
+    public void keyedMoveOneItem() {
+        DiffObservableList<Item> list = new DiffObservableList<>(Item.KEYED_CALLBACK);
+        ObservableList.OnListChangedCallback callback = mock(ObservableList.OnListChangedCallback.class);
+        list.addOnListChangedCallback(callback);
+        list.update(Arrays.asList(new Item("1", "a"), new Item("2", "b")));
+        list.update(Arrays.asList(new Item("2", "b"), new Item("1", "a")));
+
+        assertThat(list)
+                .hasSize(2)
+                .containsExactly(new Item("2", "b"), new Item("1", "a"));
+        verify(callback).onItemRangeMoved(list, 0, 1, 1);
+    }
+
+    @Test
+    public void keyedInsertRemoveAndChange() {
+        DiffObservableList<Item> list = new DiffObservableList<>(Item.KEYED_CALLBACK);
+        ObservableList.OnListChangedCallback callback = mock(ObservableList.OnListChangedCallback.class);
+        list.update(Arrays.asList(new Item("1", "a"), new Item("2", "b"), new Item("3", "c")));
+        list.addOnListChangedCallback(callback);
+        list.update(Arrays.asList(new Item("1", "a"), new Item("3", "d"), new Item("4", "e")));
+
+        assertThat(list)
+                .hasSize(3)
+                .containsExactly(new Item("1", "a"), new Item("3", "d"), new Item("4", "e"));
+        verify(callback).onItemRangeRemoved(list, 1, 1);
+        verify(callback).onItemRangeInserted(list, 2, 1);
+        verify(callback).onItemRangeChanged(list, 1, 1);
+        verifyNoMoreInteractions(callback);
+    }
+
+    @Test
+    public void keyedReverseMovesAllButOneItem() {
+        DiffObservableList<Item> list = new DiffObservableList<>(Item.KEYED_CALLBACK);
+        ObservableList.OnListChangedCallback callback = mock(ObservableList.OnListChangedCallback.class);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(new Item(String.valueOf(i), "a"));
+        }
+        list.update(items);
+        list.addOnListChangedCallback(callback);
+        List<Item> reversed = new ArrayList<>(items);
+        Collections.reverse(reversed);
+        list.update(reversed);
+
+        assertThat(list).isEqualTo(reversed);
+        verify(callback, times(99)).onItemRangeMoved(eq(list), anyInt(), anyInt(), eq(1));
+        verifyNoMoreInteractions(callback);
+    }
+
+    @Test
+    public void keyedMoveWithoutDetectMovesRemovesAndInserts() {
+        DiffObservableList<Item> list = new DiffObservableList<>(Item.KEYED_CALLBACK, false);
+        ObservableList.OnListChangedCallback callback = mock(ObservableList.OnListChangedCallback.class);
+        list.update(Arrays.asList(new Item("1", "a"), new Item("2", "b"), new Item("3", "c")));
+        list.addOnListChangedCallback(callback);
+        list.update(Arrays.asList(new Item("2", "b"), new Item("3", "c"), new Item("1", "a")));
+
+        assertThat(list)
+                .hasSize(3)
+                .containsExactly(new Item("2", "b"), new Item("3", "c"), new Item("1", "a"));
+        verify(callback).onItemRangeRemoved(list, 0, 1);
+        verify(callback).onItemRangeInserted(list, 2, 1);
+        verifyNoMoreInteractions(callback);
+    }
+
+    @Test
+    public void keyedReverseWithoutDetectMovesDoesNotMove() {
+        DiffObservableList<Item> list = new DiffObservableList<>(Item.KEYED_CALLBACK, false);
+        ObservableList.OnListChangedCallback callback = mock(ObservableList.OnListChangedCallback.class);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(new Item(String.valueOf(i), "a"));
+        }
+        list.update(items);
+        list.addOnListChangedCallback(callback);
+        List<Item> reversed = new ArrayList<>(items);
+        Collections.reverse(reversed);
+        list.update(reversed);
+
+        assertThat(list).isEqualTo(reversed);
+        verify(callback, never()).onItemRangeMoved(eq(list), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void keyedDuplicateKeysFallBackToDiffUtil() {
+        DiffObservableList<Item> list = new DiffObservableList<>(Item.KEYED_CALLBACK);
+        list.update(Arrays.asList(new Item("1", "a"), new Item("1", "b")));
+        list.update(Arrays.asList(new Item("1", "b"), new Item("2", "c")));
+
+        assertThat(list)
+                .hasSize(2)
+                .containsExactly(new Item("1", "b"), new Item("2", "c"));
+    }
+
+    @Test
+    public void changeItemWithPayload() {
+        DiffObservableList<Item> list = new DiffObservableList<>(Item.PAYLOAD_CALLBACK);
+        ObservableList.OnListChangedCallback callback = mock(ObservableList.OnListChangedCallback.class, withSettings().extraInterfaces(PayloadOnListChangedCallback.class));
+        list.update(Arrays.asList(new Item("1", "a")));
+        list.addOnListChangedCallback(callback);
+        list.update(Arrays.asList(new Item("1", "b")));
+
+        verify((PayloadOnListChangedCallback) callback).onItemRangeChanged(list, 0, 1, "b");
+        verifyNoMoreInteractions(callback);
+    }
+
+    @Test
+    public void changeItemWithPayloadThroughMergeList() {
+        DiffObservableList<Item> list = new DiffObservableList<>(Item.PAYLOAD_CALLBACK);
+        list.update(Arrays.asList(new Item("1", "a")));
+        MergeObservableList<Item> mergeList = new MergeObservableList<>();
+        mergeList.insertItem(new Item("0", "header"));
+        mergeList.insertList(list);
+        ObservableList.OnListChangedCallback callback = mock(ObservableList.OnListChangedCallback.class, withSettings().extraInterfaces(PayloadOnListChangedCallback.class));
+        mergeList.addOnListChangedCallback(callback);
+        list.update(Arrays.asList(new Item("1", "b")));
+
+        verify((PayloadOnListChangedCallback) callback).onItemRangeChanged(mergeList, 1, 1, "b");
+        verifyNoMoreInteractions(callback);
+    }
+
+    static class QueueExecutor implements Executor {
+        final ArrayList<Runnable> queue = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            queue.add(command);
+        }
+
+        void runAll() {
+            while (!queue.isEmpty()) {
+                queue.remove(0).run();
+            }
+        }
+    }
 
     static class Item {
 
@@ -86,6 +289,40 @@ public class DiffObservableListTest {
             }
         };
 
+        static final DiffObservableList.KeyedCallback<Item> KEYED_CALLBACK = new DiffObservableList.KeyedCallback<Item>() {
+            @Override
+            public Object getKey(Item item) {
+                return item.id;
+            }
+
+            @Override
+            public boolean areItemsTheSame(Item oldItem, Item newItem) {
+                return oldItem.id.equals(newItem.id);
+            }
+
+            @Override
+            public boolean areContentsTheSame(Item oldItem, Item newItem) {
+                return oldItem.value.equals(newItem.value);
+            }
+        };
+
+        static final DiffObservableList.ChangePayloadCallback<Item> PAYLOAD_CALLBACK = new DiffObservableList.ChangePayloadCallback<Item>() {
+            @Override
+            public Object getChangePayload(Item oldItem, Item newItem) {
+                return newItem.value;
+            }
+
+            @Override
+            public boolean areItemsTheSame(Item oldItem, Item newItem) {
+                return oldItem.id.equals(newItem.id);
+            }
+
+            @Override
+            public boolean areContentsTheSame(Item oldItem, Item newItem) {
+                return oldItem.value.equals(newItem.value);
+            }
+        };
+
         final String id;
         final String value;
 
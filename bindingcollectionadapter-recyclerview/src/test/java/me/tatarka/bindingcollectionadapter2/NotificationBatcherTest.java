@@ -0,0 +1,197 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import android.support.v7.util.ListUpdateCallback;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@RunWith(JUnit4.class)
+public class NotificationBatcherTest {
+
+    @Test
+    public void consecutiveInsertsAtEndAreCoalesced() {
+        ListUpdateCallback callback = mock(ListUpdateCallback.class);
+        NotificationBatcher batcher = new NotificationBatcher(callback);
+        for (int i = 0; i < 200; i++) {
+            batcher.onInserted(i, 1);
+        }
+        batcher.dispatchPending();
+
+        verify(callback).onInserted(0, 200);
+        verifyNoMoreInteractions(callback);
+    }
+
+    @Test
+    public void removesAreDispatchedRightAway() {
+        ListUpdateCallback callback = mock(ListUpdateCallback.class);
+        NotificationBatcher batcher = new NotificationBatcher(callback);
+        batcher.onRemoved(1, 1);
+        batcher.onRemoved(0, 1);
+
+        verify(callback).onRemoved(1, 1);
+        verify(callback).onRemoved(0, 1);
+        verifyNoMoreInteractions(callback);
+        assertThat(batcher.hasPending()).isFalse();
+    }
+
+    @Test
+    public void removingPendingInsertsShrinksThem() {
+        ListUpdateCallback callback = mock(ListUpdateCallback.class);
+        NotificationBatcher batcher = new NotificationBatcher(callback);
+        batcher.onInserted(2, 3);
+        batcher.onRemoved(3, 1);
+        batcher.dispatchPending();
+
+        verify(callback).onInserted(2, 2);
+        verifyNoMoreInteractions(callback);
+    }
+
+    @Test
+    public void pendingInsertKeepsDispatchedPositions() {
+        ListUpdateCallback callback = mock(ListUpdateCallback.class);
+        NotificationBatcher batcher = new NotificationBatcher(callback);
+        batcher.onInserted(2, 3);
+
+        assertThat(batcher.dispatchedCount(10)).isEqualTo(7);
+        assertThat(batcher.currentPosition(1)).isEqualTo(1);
+        assertThat(batcher.currentPosition(2)).isEqualTo(5);
+
+        batcher.dispatchPending();
+
+        assertThat(batcher.dispatchedCount(10)).isEqualTo(10);
+        assertThat(batcher.currentPosition(2)).isEqualTo(2);
+    }
+
+    @Test
+    public void overlappingChangesAreCoalesced() {
+        ListUpdateCallback callback = mock(ListUpdateCallback.class);
+        NotificationBatcher batcher = new NotificationBatcher(callback);
+        batcher.onChanged(2, 3, null);
+        batcher.onChanged(4, 3, null);
+        batcher.onChanged(0, 2, null);
+        batcher.dispatchPending();
+
+        verify(callback).onChanged(0, 7, null);
+        verifyNoMoreInteractions(callback);
+    }
+
+    @Test
+    public void changesWithDifferentPayloadsAreNotCoalesced() {
+        ListUpdateCallback callback = mock(ListUpdateCallback.class);
+        NotificationBatcher batcher = new NotificationBatcher(callback);
+        batcher.onChanged(0, 1, "a");
+        batcher.onChanged(1, 1, "b");
+        batcher.dispatchPending();
+
+        verify(callback).onChanged(0, 1, "a");
+        verify(callback).onChanged(1, 1, "b");
+        verifyNoMoreInteractions(callback);
+    }
+
+    @Test
+    public void nothingIsDispatchedUntilPending() {
+        ListUpdateCallback callback = mock(ListUpdateCallback.class);
+        NotificationBatcher batcher = new NotificationBatcher(callback);
+        batcher.onInserted(0, 1);
+
+        assertThat(batcher.hasPending()).isTrue();
+        verifyNoMoreInteractions(callback);
+    }
+
+    @Test
+    public void batchedNotificationsResultInSameState() {
+        Random random = new Random(0);
+        for (int run = 0; run < 500; run++) {
+            AdapterModel direct = new AdapterModel(10);
+            AdapterModel batched = new AdapterModel(10);
+            NotificationBatcher batcher = new NotificationBatcher(batched);
+            int size = 10;
+            for (int i = 0; i < 30; i++) {
+                int op = random.nextInt(4);
+                if (op == 0 || size == 0) {
+                    int position = random.nextInt(size + 1);
+                    int count = 1 + random.nextInt(3);
+                    direct.onInserted(position, count);
+                    batcher.onInserted(position, count);
+                    size += count;
+                } else if (op == 1) {
+                    int position = random.nextInt(size);
+                    int count = 1 + random.nextInt(Math.min(3, size - position));
+                    direct.onRemoved(position, count);
+                    batcher.onRemoved(position, count);
+                    size -= count;
+                } else if (op == 2) {
+                    int position = random.nextInt(size);
+                    int count = 1 + random.nextInt(Math.min(3, size - position));
+                    direct.onChanged(position, count, null);
+                    batcher.onChanged(position, count, null);
+                } else {
+                    int from = random.nextInt(size);
+                    int to = random.nextInt(size);
+                    direct.onMoved(from, to);
+                    batcher.onMoved(from, to);
+                }
+                assertThat(batched.items).hasSize(batcher.dispatchedCount(size));
+                for (int position = 0; position < batched.items.size(); position++) {
+                    int item = direct.items.get(batcher.currentPosition(position));
+                    if (item != -1) {
+                        assertThat(batched.items.get(position)).isEqualTo(item);
+                    }
+                }
+            }
+            batcher.dispatchPending();
+
+            assertThat(batched.items).isEqualTo(direct.items);
+        }
+    }
+
+    /**
+     * Tracks which of the original items are at each position of an adapter and which positions
+     * have to be bound again, -1.
+     */
+    static class AdapterModel implements ListUpdateCallback {
+        final List<Integer> items = new ArrayList<>();
+
+        AdapterModel(int size) {
+            for (int i = 0; i < size; i++) {
+                items.add(i);
+            }
+        }
+
+        @Override
+        public void onInserted(int position, int count) {
+            for (int i = 0; i < count; i++) {
+                items.add(position, -1);
+            }
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            for (int i = 0; i < count; i++) {
+                items.remove(position);
+            }
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            items.add(toPosition, items.remove(fromPosition));
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            for (int i = position; i < position + count; i++) {
+                items.set(i, -1);
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import android.databinding.ViewDataBinding;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(JUnit4.class)
+public class PendingBindingsFlusherTest {
+
+    private View view;
+
+    @Before
+    public void setup() {
+        view = mock(View.class);
+    }
+
+    @Test
+    public void executesRightAwayWithinBudget() {
+        TestFlusher flusher = new TestFlusher(Long.MAX_VALUE / 2);
+        flusher.attach(view);
+        ViewDataBinding binding1 = mock(ViewDataBinding.class);
+        ViewDataBinding binding2 = mock(ViewDataBinding.class);
+        flusher.add(binding1);
+        flusher.add(binding2);
+
+        verify(binding1).executePendingBindings();
+        verify(binding2).executePendingBindings();
+        assertThat(flusher.isPending(binding1)).isFalse();
+        assertThat(flusher.posted).isEqualTo(1);
+    }
+
+    @Test
+    public void overBudgetExecutesAtStartOfNextFrame() {
+        TestFlusher flusher = new TestFlusher(0);
+        flusher.attach(view);
+        ViewDataBinding binding1 = mock(ViewDataBinding.class);
+        ViewDataBinding binding2 = mock(ViewDataBinding.class);
+        flusher.add(binding1);
+        flusher.add(binding2);
+        flusher.add(binding1);
+
+        verify(binding1, never()).executePendingBindings();
+        assertThat(flusher.isPending(binding1)).isTrue();
+        assertThat(flusher.posted).isEqualTo(1);
+
+        flusher.run();
+
+        verify(binding1, times(1)).executePendingBindings();
+        verify(binding2, never()).executePendingBindings();
+        assertThat(flusher.posted).isEqualTo(2);
+
+        flusher.run();
+
+        verify(binding2).executePendingBindings();
+        assertThat(flusher.isPending(binding2)).isFalse();
+    }
+
+    @Test
+    public void nextFrameStartsNewBudget() {
+        TestFlusher flusher = new TestFlusher(1);
+        flusher.attach(view);
+        ViewDataBinding binding1 = mock(ViewDataBinding.class);
+        ViewDataBinding binding2 = mock(ViewDataBinding.class);
+        flusher.add(binding1);
+        flusher.add(binding2);
+
+        verify(binding1).executePendingBindings();
+        verify(binding2, never()).executePendingBindings();
+
+        flusher.run();
+
+        verify(binding2).executePendingBindings();
+    }
+
+    @Test
+    public void detachExecutesEverything() {
+        TestFlusher flusher = new TestFlusher(0);
+        flusher.attach(view);
+        ViewDataBinding binding1 = mock(ViewDataBinding.class);
+        ViewDataBinding binding2 = mock(ViewDataBinding.class);
+        flusher.add(binding1);
+        flusher.add(binding2);
+
+        flusher.detach();
+
+        verify(binding1).executePendingBindings();
+        verify(binding2).executePendingBindings();
+        verify(view).removeCallbacks(flusher);
+    }
+
+    static class TestFlusher extends PendingBindingsFlusher {
+        int posted;
+
+        TestFlusher(long frameBudgetNanos) {
+            super(frameBudgetNanos);
+        }
+
+        @Override
+        void postOnAnimation(View view) {
+            posted++;
+        }
+    }
+}
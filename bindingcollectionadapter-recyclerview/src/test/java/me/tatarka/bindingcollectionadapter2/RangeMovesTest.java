@@ -0,0 +1,97 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import android.support.v7.util.ListUpdateCallback;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@RunWith(JUnit4.class)
+public class RangeMovesTest {
+
+    @Test
+    public void allBlockMovesMatchModel() {
+        int size = 12;
+        for (int count = 1; count <= size; count++) {
+            for (int from = 0; from + count <= size; from++) {
+                for (int to = 0; to + count <= size; to++) {
+                    List<Integer> expected = items(size);
+                    List<Integer> block = new ArrayList<>(expected.subList(from, from + count));
+                    expected.subList(from, from + count).clear();
+                    expected.addAll(to, block);
+
+                    IndexTracker tracker = new IndexTracker(items(size));
+                    RangeMoves.dispatch(tracker, from, to, count, Integer.MAX_VALUE);
+
+                    assertThat(tracker.items).isEqualTo(expected);
+                    assertThat(tracker.moves).isEqualTo(from == to ? 0 : Math.min(count, Math.abs(to - from)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void largeMoveFallsBackToRemoveAndInsert() {
+        ListUpdateCallback callback = mock(ListUpdateCallback.class);
+        RangeMoves.dispatch(callback, 0, 20, 10, 5);
+
+        verify(callback).onRemoved(0, 10);
+        verify(callback).onInserted(20, 10);
+        verifyNoMoreInteractions(callback);
+    }
+
+    @Test
+    public void smallDistanceUsesMovesEvenForLargeBlock() {
+        ListUpdateCallback callback = mock(ListUpdateCallback.class);
+        RangeMoves.dispatch(callback, 0, 1, 10, 5);
+
+        verify(callback).onMoved(10, 0);
+        verifyNoMoreInteractions(callback);
+    }
+
+    private static List<Integer> items(int size) {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            items.add(i);
+        }
+        return items;
+    }
+
+    static class IndexTracker implements ListUpdateCallback {
+        final List<Integer> items;
+        int moves;
+
+        IndexTracker(List<Integer> items) {
+            this.items = items;
+        }
+
+        @Override
+        public void onInserted(int position, int count) {
+            throw new AssertionError();
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            throw new AssertionError();
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            moves++;
+            items.add(toPosition, items.remove(fromPosition));
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            throw new AssertionError();
+        }
+    }
+}
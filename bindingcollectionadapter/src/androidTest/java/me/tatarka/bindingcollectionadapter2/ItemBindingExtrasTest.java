@@ -0,0 +1,111 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import android.databinding.DataBindingUtil;
+import android.databinding.ViewDataBinding;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.rule.ActivityTestRule;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.LayoutInflater;
+import android.widget.TextView;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import me.tatarka.bindingcollectionadapter2.test.R;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(AndroidJUnit4.class)
+public class ItemBindingExtrasTest {
+
+    @Rule
+    public ActivityTestRule<EmptyActivity> activityTestRule = new ActivityTestRule<>(EmptyActivity.class);
+
+    private LayoutInflater inflater;
+
+    @Before
+    public void setup() throws Exception {
+        inflater = LayoutInflater.from(activityTestRule.getActivity());
+    }
+
+    @Test
+    @UiThreadTest
+    public void changedExtraIsAppliedAgain() {
+        ItemBinding<String> itemBinding = ItemBinding.<String>of(me.tatarka.bindingcollectionadapter2.BR.item, R.layout.item_extras)
+                .applyExtrasOnce(true)
+                .bindExtra(me.tatarka.bindingcollectionadapter2.BR.first, "a");
+        ViewDataBinding binding = inflate();
+
+        itemBinding.resolve(0, "one").bind(binding, "one");
+
+        assertThat(textOf(binding)).isEqualTo("one,a,null");
+
+        itemBinding.bindExtra(me.tatarka.bindingcollectionadapter2.BR.first, "b");
+        itemBinding.resolve(0, "two").bind(binding, "two");
+
+        assertThat(textOf(binding)).isEqualTo("two,b,null");
+    }
+
+    @Test
+    @UiThreadTest
+    public void removedExtraIsApplied() {
+        ItemBinding<String> itemBinding = ItemBinding.<String>of(me.tatarka.bindingcollectionadapter2.BR.item, R.layout.item_extras)
+                .applyExtrasOnce(true)
+                .bindExtra(me.tatarka.bindingcollectionadapter2.BR.first, "a")
+                .bindExtra(me.tatarka.bindingcollectionadapter2.BR.second, "b");
+        ViewDataBinding binding = inflate();
+
+        itemBinding.resolve(0, "one").bind(binding, "one");
+
+        assertThat(textOf(binding)).isEqualTo("one,a,b");
+
+        itemBinding.removeExtra(me.tatarka.bindingcollectionadapter2.BR.second);
+        ViewDataBinding newBinding = inflate();
+        itemBinding.resolve(0, "two").bind(newBinding, "two");
+
+        assertThat(textOf(newBinding)).isEqualTo("two,a,null");
+        assertThat(itemBinding.resolve(0, "two").extraBinding(me.tatarka.bindingcollectionadapter2.BR.second)).isNull();
+    }
+
+    @Test
+    @UiThreadTest
+    public void viewBoundByOtherItemBindingGetsExtras() {
+        ItemBinding<String> itemBinding = ItemBinding.<String>of(me.tatarka.bindingcollectionadapter2.BR.item, R.layout.item_extras)
+                .applyExtrasOnce(true)
+                .bindExtra(me.tatarka.bindingcollectionadapter2.BR.first, "a");
+        ItemBinding<String> otherOnceItemBinding = ItemBinding.<String>of(me.tatarka.bindingcollectionadapter2.BR.item, R.layout.item_extras)
+                .applyExtrasOnce(true)
+                .bindExtra(me.tatarka.bindingcollectionadapter2.BR.first, "b");
+        ItemBinding<String> otherItemBinding = ItemBinding.<String>of(me.tatarka.bindingcollectionadapter2.BR.item, R.layout.item_extras)
+                .bindExtra(me.tatarka.bindingcollectionadapter2.BR.first, "c");
+        ViewDataBinding binding = inflate();
+
+        itemBinding.resolve(0, "one").bind(binding, "one");
+        otherOnceItemBinding.resolve(0, "two").bind(binding, "two");
+
+        assertThat(textOf(binding)).isEqualTo("two,b,null");
+
+        itemBinding.resolve(0, "three").bind(binding, "three");
+
+        assertThat(textOf(binding)).isEqualTo("three,a,null");
+
+        otherItemBinding.resolve(0, "four").bind(binding, "four");
+
+        assertThat(textOf(binding)).isEqualTo("four,c,null");
+
+        itemBinding.resolve(0, "five").bind(binding, "five");
+
+        assertThat(textOf(binding)).isEqualTo("five,a,null");
+    }
+
+    private ViewDataBinding inflate() {
+        return DataBindingUtil.inflate(inflater, R.layout.item_extras, null, false);
+    }
+
+    private static String textOf(ViewDataBinding binding) {
+        binding.executePendingBindings();
+        return ((TextView) binding.getRoot()).getText().toString();
+    }
+}
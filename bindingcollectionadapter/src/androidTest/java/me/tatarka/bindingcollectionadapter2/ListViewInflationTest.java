@@ -1,13 +1,17 @@
 package me.tatarka.bindingcollectionadapter2;
 
+import android.database.DataSetObserver;
 import android.databinding.DataBindingUtil;
+import android.databinding.ObservableArrayList;
 import android.databinding.ViewDataBinding;
+import android.support.annotation.LayoutRes;
 import android.support.test.annotation.UiThreadTest;
 import android.support.test.rule.ActivityTestRule;
 import android.support.test.runner.AndroidJUnit4;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.widget.ListView;
+import android.widget.TextView;
 import android.widget.WrapperListAdapter;
 
 import org.junit.Before;
@@ -15,6 +19,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -155,4 +160,148 @@ public class ListViewInflationTest {
 
         assertThat(TestHelpers.iterable(adapter)).containsExactlyElementsOf(items);
     }
-}
\ No newline at end of file
+
+    @Test
+    @UiThreadTest
+    public void changedVisibleRowIsReboundInPlace() {
+        ObservableArrayList<String> items = new ObservableArrayList<>();
+        items.addAll(Arrays.asList("one", "two", "three"));
+        BindingListViewAdapter<String> adapter = new BindingListViewAdapter<>(1);
+        adapter.setItemBinding(ItemBinding.<String>of(me.tatarka.bindingcollectionadapter2.BR.item, R.layout.item));
+        adapter.setItems(items);
+        adapter.setRebindVisibleRows(true);
+        ListView listView = new ListView(activityTestRule.getActivity());
+        listView.setAdapter(adapter);
+        layout(listView);
+        CountingDataSetObserver observer = new CountingDataSetObserver();
+        adapter.registerDataSetObserver(observer);
+        View row = listView.getChildAt(1);
+
+        items.set(1, "changed");
+
+        assertThat(observer.changedCount).isEqualTo(0);
+        assertThat(listView.getChildAt(1)).isSameAs(row);
+        assertThat(((TextView) row).getText().toString()).isEqualTo("changed");
+    }
+
+    @Test
+    @UiThreadTest
+    public void changedRowBehindHeaderIsReboundInPlace() {
+        ObservableArrayList<String> items = new ObservableArrayList<>();
+        items.addAll(Arrays.asList("one", "two", "three"));
+        BindingListViewAdapter<String> adapter = new BindingListViewAdapter<>(1);
+        adapter.setItemBinding(ItemBinding.<String>of(me.tatarka.bindingcollectionadapter2.BR.item, R.layout.item));
+        adapter.setItems(items);
+        adapter.setRebindVisibleRows(true);
+        ListView listView = new ListView(activityTestRule.getActivity());
+        listView.addHeaderView(new TextView(activityTestRule.getActivity()));
+        listView.setAdapter(adapter);
+        layout(listView);
+        CountingDataSetObserver observer = new CountingDataSetObserver();
+        adapter.registerDataSetObserver(observer);
+
+        items.set(0, "changed");
+
+        assertThat(listView.getAdapter()).isInstanceOf(WrapperListAdapter.class);
+        assertThat(observer.changedCount).isEqualTo(0);
+        assertThat(((TextView) listView.getChildAt(1)).getText().toString()).isEqualTo("changed");
+    }
+
+    @Test
+    @UiThreadTest
+    public void changedRowOutsideVisibleRangeIsNotBound() {
+        ObservableArrayList<String> items = new ObservableArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            items.add("item" + i);
+        }
+        BindingListViewAdapter<String> adapter = new BindingListViewAdapter<>(1);
+        adapter.setItemBinding(ItemBinding.<String>of(me.tatarka.bindingcollectionadapter2.BR.item, R.layout.item));
+        adapter.setItems(items);
+        adapter.setRebindVisibleRows(true);
+        ListView listView = new ListView(activityTestRule.getActivity());
+        listView.setAdapter(adapter);
+        layout(listView);
+        CountingDataSetObserver observer = new CountingDataSetObserver();
+        adapter.registerDataSetObserver(observer);
+        List<String> visibleText = textOfChildren(listView);
+
+        items.set(499, "changed");
+
+        assertThat(listView.getLastVisiblePosition()).isLessThan(499);
+        assertThat(observer.changedCount).isEqualTo(0);
+        assertThat(textOfChildren(listView)).isEqualTo(visibleText);
+    }
+
+    @Test
+    @UiThreadTest
+    public void changedRowWithDifferentLayoutRefreshesList() {
+        ObservableArrayList<String> items = new ObservableArrayList<>();
+        items.addAll(Arrays.asList("one", "two", "three"));
+        BindingListViewAdapter<String> adapter = new BindingListViewAdapter<>(2);
+        adapter.setItemBinding(ItemBinding.of(new OnItemBind<String>() {
+            @Override
+            public void onItemBind(ItemBinding itemBinding, int position, String item) {
+                itemBinding.set(me.tatarka.bindingcollectionadapter2.BR.item, item.startsWith("other") ? R.layout.item2 : R.layout.item);
+            }
+        }));
+        adapter.setItems(items);
+        adapter.setRebindVisibleRows(true);
+        ListView listView = new ListView(activityTestRule.getActivity());
+        listView.setAdapter(adapter);
+        layout(listView);
+        CountingDataSetObserver observer = new CountingDataSetObserver();
+        adapter.registerDataSetObserver(observer);
+
+        items.set(1, "other");
+
+        assertThat(observer.changedCount).isEqualTo(1);
+        layout(listView);
+        assertThat(((TextView) listView.getChildAt(1)).getText().toString()).isEqualTo("other");
+    }
+
+    @Test
+    @UiThreadTest
+    public void subclassBindingItsOwnItemIsBound() {
+        List<String> items = Arrays.asList("one", "two", "three");
+        BindingListViewAdapter<String> adapter = new BindingListViewAdapter<String>(1) {
+            @Override
+            public void onBindBinding(ViewDataBinding binding, int variableId, @LayoutRes int layoutRes, int position, String item) {
+                super.onBindBinding(binding, variableId, layoutRes, position, item + "!");
+            }
+        };
+        adapter.setItemBinding(ItemBinding.of(new OnItemBind<String>() {
+            @Override
+            public void onItemBind(ItemBinding itemBinding, int position, String item) {
+                itemBinding.set(me.tatarka.bindingcollectionadapter2.BR.item, R.layout.item);
+            }
+        }));
+        adapter.setItems(items);
+        ListView listView = new ListView(activityTestRule.getActivity());
+        listView.setAdapter(adapter);
+        layout(listView);
+
+        assertThat(textOfChildren(listView)).containsExactly("one!", "two!", "three!");
+    }
+
+    private static void layout(View view) {
+        view.measure(View.MeasureSpec.makeMeasureSpec(1000, View.MeasureSpec.EXACTLY), View.MeasureSpec.makeMeasureSpec(1000, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, 1000, 1000);
+    }
+
+    private static List<String> textOfChildren(ListView listView) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < listView.getChildCount(); i++) {
+            result.add(((TextView) listView.getChildAt(i)).getText().toString());
+        }
+        return result;
+    }
+
+    private static class CountingDataSetObserver extends DataSetObserver {
+        int changedCount;
+
+        @Override
+        public void onChanged() {
+            changedCount++;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(AndroidJUnit4.class)
+public class ResolvedBindingCacheAndroidTest {
+
+    @Test
+    // SparseArray not mocked for JUnit
+    public void extraBoundAfterGetIsResolved() {
+        ItemBinding<String> itemBinding = ItemBinding.of(new OnItemBind<String>() {
+            @Override
+            public void onItemBind(ItemBinding itemBinding, int position, String item) {
+                itemBinding.set(1, 2);
+            }
+        });
+        List<String> items = Arrays.asList("a", "b");
+        ResolvedBindingCache cache = new ResolvedBindingCache();
+        Object oldListener = new Object();
+        Object newListener = new Object();
+        itemBinding.bindExtra(3, oldListener);
+
+        assertThat(cache.get(itemBinding, items, 0).extraBinding(3)).isSameAs(oldListener);
+
+        itemBinding.bindExtra(3, newListener);
+
+        assertThat(cache.get(itemBinding, items, 0).extraBinding(3)).isSameAs(newListener);
+        assertThat(cache.get(itemBinding, items, 1).extraBinding(3)).isSameAs(newListener);
+
+        itemBinding.removeExtra(3);
+
+        assertThat(cache.get(itemBinding, items, 0).extraBinding(3)).isNull();
+    }
+}
@@ -1,18 +1,26 @@
 package me.tatarka.bindingcollectionadapter2;
 
 import android.databinding.DataBindingUtil;
+import android.databinding.ObservableArrayList;
 import android.databinding.ViewDataBinding;
+import android.support.annotation.LayoutRes;
 import android.support.test.annotation.UiThreadTest;
 import android.support.test.rule.ActivityTestRule;
 import android.support.test.runner.AndroidJUnit4;
 import android.support.v4.view.ViewPager;
+import android.support.v4.view.PagerAdapter;
 import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.TextView;
 
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -64,4 +72,107 @@ public class ViewPagerInflationTest {
 
         assertThat(adapter).isInstanceOf(TestHelpers.MyBindingViewPagerAdapter.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    @UiThreadTest
+    public void testChangedItemIsReboundInPlace() {
+        ObservableArrayList<String> items = new ObservableArrayList<>();
+        items.addAll(Arrays.asList("one", "two", "three"));
+        BindingViewPagerAdapter<String> adapter = new BindingViewPagerAdapter<>();
+        adapter.setItemBinding(ItemBinding.<String>of(BR.item, R.layout.item));
+        adapter.setItems(items);
+        FrameLayout container = new FrameLayout(activityTestRule.getActivity());
+        View page = (View) adapter.instantiateItem(container, 1);
+
+        items.set(1, "changed");
+
+        assertThat(container.getChildAt(0)).isSameAs(page);
+        assertThat(((TextView) page).getText().toString()).isEqualTo("changed");
+        assertThat(adapter.getItemPosition(page)).isEqualTo(PagerAdapter.POSITION_UNCHANGED);
+
+        items.add(0, "zero");
+
+        assertThat(adapter.getItemPosition(page)).isEqualTo(2);
+        assertThat(adapter.getItemPosition(page)).isEqualTo(PagerAdapter.POSITION_UNCHANGED);
+    }
+
+    @Test
+    @UiThreadTest
+    public void pagingWithRecycledPagesOnlyInflatesKeptPages() {
+        CountingBindingViewPagerAdapter<String> adapter = new CountingBindingViewPagerAdapter<>();
+        adapter.setMaxRecycledPages(2);
+        FrameLayout container = pageThrough(adapter, 50);
+
+        assertThat(container.getChildCount()).isEqualTo(2);
+        assertThat(adapter.createdBindings).isEqualTo(3);
+    }
+
+    @Test
+    @UiThreadTest
+    public void pagingWithoutRecycledPagesInflatesEveryPage() {
+        CountingBindingViewPagerAdapter<String> adapter = new CountingBindingViewPagerAdapter<>();
+        pageThrough(adapter, 50);
+
+        assertThat(adapter.createdBindings).isEqualTo(50);
+    }
+
+    @Test
+    @UiThreadTest
+    public void instantiatingPageCallsOnItemBindOnce() {
+        final int[] onItemBindCalls = new int[1];
+        BindingViewPagerAdapter<String> adapter = new BindingViewPagerAdapter<>();
+        adapter.setItemBinding(ItemBinding.of(new OnItemBind<String>() {
+            @Override
+            public void onItemBind(ItemBinding itemBinding, int position, String item) {
+                onItemBindCalls[0]++;
+                itemBinding.set(BR.item, R.layout.item);
+            }
+        }));
+        adapter.setItems(Arrays.asList("one", "two", "three"));
+        FrameLayout container = new FrameLayout(activityTestRule.getActivity());
+        View page = (View) adapter.instantiateItem(container, 1);
+
+        assertThat(onItemBindCalls[0]).isEqualTo(1);
+        assertThat(((TextView) page).getText().toString()).isEqualTo("two");
+    }
+
+    /**
+     * Pages through the given number of items like a {@code ViewPager} with an offscreen page limit
+     * of 1, which destroys pages left behind before instantiating new ones.
+     */
+    private FrameLayout pageThrough(BindingViewPagerAdapter<String> adapter, int count) {
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add("item" + i);
+        }
+        adapter.setItemBinding(ItemBinding.<String>of(BR.item, R.layout.item));
+        adapter.setItems(items);
+        FrameLayout container = new FrameLayout(activityTestRule.getActivity());
+        Object[] pages = new Object[count];
+        pages[0] = adapter.instantiateItem(container, 0);
+        for (int current = 0; current < count; current++) {
+            adapter.startUpdate(container);
+            if (current >= 2) {
+                adapter.destroyItem(container, current - 2, pages[current - 2]);
+                pages[current - 2] = null;
+            }
+            if (current + 1 < count) {
+                pages[current + 1] = adapter.instantiateItem(container, current + 1);
+            }
+            adapter.finishUpdate(container);
+
+            assertThat(((TextView) pages[current]).getText().toString()).isEqualTo(items.get(current));
+        }
+        return container;
+    }
+
+    private static class CountingBindingViewPagerAdapter<T> extends BindingViewPagerAdapter<T> {
+        int createdBindings;
+
+        @Override
+        public ViewDataBinding onCreateBinding(LayoutInflater inflater, @LayoutRes int layoutRes, ViewGroup viewGroup) {
+            createdBindings++;
+            return super.onCreateBinding(inflater, layoutRes, viewGroup);
+        }
+    }
+}
@@ -4,9 +4,7 @@ import android.databinding.BindingAdapter;
 import android.databinding.BindingConversion;
 import android.support.annotation.LayoutRes;
 import android.support.v4.view.ViewPager;
-import android.widget.Adapter;
 import android.widget.AdapterView;
-import android.widget.WrapperListAdapter;
 
 import java.util.List;
 
@@ -21,7 +19,7 @@ public class BindingCollectionAdapters {
         if (itemBinding == null) {
             throw new IllegalArgumentException("onItemBind must not be null");
         }
-        BindingListViewAdapter<T> oldAdapter = (BindingListViewAdapter<T>) unwrapAdapter(adapterView.getAdapter());
+        BindingListViewAdapter<T> oldAdapter = (BindingListViewAdapter<T>) Utils.unwrapAdapter(adapterView.getAdapter());
         if (adapter == null) {
             if (oldAdapter == null) {
                 int count = itemTypeCount != null ? itemTypeCount : 1;
@@ -41,16 +39,6 @@ public class BindingCollectionAdapters {
         }
     }
 
-    /**
-     * Unwraps any {@link android.widget.WrapperListAdapter}, commonly {@link
-     * android.widget.HeaderViewListAdapter}.
-     */
-    private static Adapter unwrapAdapter(Adapter adapter) {
-        return adapter instanceof WrapperListAdapter
-                ? unwrapAdapter(((WrapperListAdapter) adapter).getWrappedAdapter())
-                : adapter;
-    }
-
     // ViewPager
     @SuppressWarnings("unchecked")
     @BindingAdapter(value = {"itemBinding", "items", "adapter", "pageTitles"}, requireAll = false)
@@ -1,5 +1,6 @@
 package me.tatarka.bindingcollectionadapter2;
 
+import android.database.DataSetObserver;
 import android.databinding.DataBindingUtil;
 import android.databinding.ObservableList;
 import android.databinding.ViewDataBinding;
@@ -9,7 +10,9 @@ import android.support.annotation.Nullable;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.AbsListView;
 import android.widget.BaseAdapter;
+import android.widget.ListView;
 
 import java.lang.ref.WeakReference;
 import java.util.List;
@@ -25,21 +28,47 @@ public class BindingListViewAdapter<T> extends BaseAdapter implements BindingCol
     private int dropDownItemLayout;
     private WeakReferenceOnListChangedCallback<T> callback;
     private List<T> items;
-    private int[] layouts;
+    // Created lazily with room for itemTypeCount layouts.
+    private LayoutViewTypes viewTypes;
     private LayoutInflater inflater;
     private ItemIds<? super T> itemIds;
     private ItemIsEnabled<? super T> itemIsEnabled;
+    private boolean rebindVisibleRows;
+    // The list view this adapter was last seen displayed in.
+    @Nullable
+    private WeakReference<AbsListView> listViewRef;
+    private final ResolvedBindingCache resolvedBindings = new ResolvedBindingCache();
+    // Non-null if binding the same item again is skipped.
+    @Nullable
+    private RebindSkipper rebindSkipper;
+    @Nullable
+    private BindingPreInflater preInflater;
+    @Nullable
+    private BindingMetrics metrics;
 
     /**
      * Constructs a new instance with the given item count.
      */
     public BindingListViewAdapter(int itemTypeCount) {
         this.itemTypeCount = itemTypeCount;
+        // Sees every notification, including ones made directly on the adapter.
+        registerDataSetObserver(new DataSetObserver() {
+            @Override
+            public void onChanged() {
+                resolvedBindings.clear();
+            }
+
+            @Override
+            public void onInvalidated() {
+                resolvedBindings.clear();
+            }
+        });
     }
 
     @Override
     public void setItemBinding(ItemBinding<T> itemBinding) {
         this.itemBinding = itemBinding;
+        resolvedBindings.clear();
     }
 
     @Override
@@ -79,16 +108,81 @@ public class BindingListViewAdapter<T> extends BaseAdapter implements BindingCol
 
     @Override
     public ViewDataBinding onCreateBinding(LayoutInflater inflater, @LayoutRes int layoutRes, ViewGroup viewGroup) {
+        if (preInflater != null) {
+            ViewDataBinding binding = preInflater.obtain(layoutRes);
+            if (binding != null) {
+                return binding;
+            }
+        }
         return DataBindingUtil.inflate(inflater, layoutRes, viewGroup, false);
     }
 
     @Override
     public void onBindBinding(ViewDataBinding binding, int variableId, @LayoutRes int layoutRes, int position, T item) {
-        if (itemBinding.bind(binding, item)) {
-            binding.executePendingBindings();
+        // A subclass may pass an item of its own, it's bound the way the item at the position is.
+        ResolvedBinding resolvedBinding = items != null && position >= 0 && position < items.size()
+                ? resolvedBinding(position)
+                : itemBinding.resolve(position, item);
+        if (resolvedBinding.bind(binding, variableId, item)) {
+            BindingMetrics.executePendingBindings(metrics, binding, layoutRes);
         }
     }
 
+    /**
+     * Sets whether item range changes of an {@link ObservableList} rebind the affected visible rows
+     * in place instead of calling {@link #notifyDataSetChanged()}, which calls {@link #getView(int,
+     * View, ViewGroup)} for every visible row. Structural changes, or a change that needs a
+     * different layout, still refresh everything. This only applies when the adapter is shown in an
+     * {@link AbsListView} like a {@link ListView} or {@link android.widget.GridView}. Defaults to
+     * false.
+     */
+    public void setRebindVisibleRows(boolean rebindVisibleRows) {
+        this.rebindVisibleRows = rebindVisibleRows;
+    }
+
+    /**
+     * Sets whether binding a recycled view is skipped when it's already bound to the same item
+     * instance, which is most of the rows after a {@link #notifyDataSetChanged()}. Only enable this
+     * if your items are immutable or observable, see {@link RebindSkipper}. Defaults to false.
+     */
+    public void setSkipRedundantBinds(boolean skipRedundantBinds) {
+        if (skipRedundantBinds != (rebindSkipper != null)) {
+            rebindSkipper = skipRedundantBinds ? new RebindSkipper() : null;
+        }
+    }
+
+    /**
+     * Returns the counts of skipped and actual binds, or null if redundant binds aren't skipped.
+     *
+     * @see #setSkipRedundantBinds(boolean)
+     */
+    @Nullable
+    public RebindSkipper getRebindSkipper() {
+        return rebindSkipper;
+    }
+
+    /**
+     * Sets a {@link BindingPreInflater} to take item views from before inflating them, so that the
+     * first screen of items doesn't have to inflate every layout on the main thread. If you override
+     * {@link #onCreateBinding(LayoutInflater, int, ViewGroup)} it's up to you to use it.
+     */
+    public void setPreInflater(@Nullable BindingPreInflater preInflater) {
+        this.preInflater = preInflater;
+    }
+
+    /**
+     * Sets the {@link BindingMetrics} to record inflate and bind times and list change
+     * notifications to, or null to not record them. Defaults to null.
+     */
+    public void setMetrics(@Nullable BindingMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Nullable
+    public BindingMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * Set the item id's for the items. If not null, this will make {@link #hasStableIds()} return
      * true.
@@ -129,23 +223,94 @@ public class BindingListViewAdapter<T> extends BaseAdapter implements BindingCol
         if (inflater == null) {
             inflater = LayoutInflater.from(parent.getContext());
         }
+        if (rebindVisibleRows && parent instanceof AbsListView && (listViewRef == null || listViewRef.get() != parent)) {
+            AbsListView listView = (AbsListView) parent;
+            // Skip lists that merely wrap this adapter, like a Spinner's drop down.
+            if (Utils.unwrapAdapter(listView.getAdapter()) == this) {
+                listViewRef = new WeakReference<>(listView);
+            }
+        }
 
         int viewType = getItemViewType(position);
-        int layoutRes = layouts[viewType];
+        int layoutRes = viewTypes.layoutOf(viewType);
 
         ViewDataBinding binding;
         if (convertView == null) {
-            binding = onCreateBinding(inflater, layoutRes, parent);
+            binding = createBinding(layoutRes, parent);
         } else {
             binding = DataBindingUtil.getBinding(convertView);
         }
 
         T item = items.get(position);
-        onBindBinding(binding, itemBinding.variableId(), layoutRes, position, item);
+        ResolvedBinding resolvedBinding = resolvedBinding(position);
+        if (rebindSkipper == null || !rebindSkipper.skip(binding, resolvedBinding, item)) {
+            bindBinding(binding, resolvedBinding.variableId(), layoutRes, position, item);
+        }
+        if (rebindVisibleRows) {
+            binding.getRoot().setTag(R.id.bindingcollectionadapter_layout, layoutRes);
+        }
 
         return binding.getRoot();
     }
 
+    private ViewDataBinding createBinding(@LayoutRes int layoutRes, ViewGroup parent) {
+        BindingMetrics metrics = this.metrics;
+        if (metrics == null) {
+            return onCreateBinding(inflater, layoutRes, parent);
+        }
+        long start = metrics.startTime();
+        ViewDataBinding binding = onCreateBinding(inflater, layoutRes, parent);
+        metrics.record(BindingMetrics.Phase.INFLATE, layoutRes, start);
+        return binding;
+    }
+
+    private void bindBinding(ViewDataBinding binding, int variableId, @LayoutRes int layoutRes, int position, T item) {
+        BindingMetrics metrics = this.metrics;
+        if (metrics == null) {
+            onBindBinding(binding, variableId, layoutRes, position, item);
+            return;
+        }
+        long start = metrics.startTime();
+        onBindBinding(binding, variableId, layoutRes, position, item);
+        metrics.record(BindingMetrics.Phase.BIND, layoutRes, start);
+    }
+
+    private void recordNotification(BindingMetrics.Notification notification) {
+        if (metrics != null) {
+            metrics.recordNotification(notification);
+        }
+    }
+
+    /**
+     * Rebinds the visible rows in the given range in place. Returns false if that isn't possible
+     * and the whole list has to be refreshed instead.
+     */
+    private boolean tryRebindVisibleRows(int positionStart, int itemCount) {
+        AbsListView listView = listViewRef != null ? listViewRef.get() : null;
+        if (listView == null || Utils.unwrapAdapter(listView.getAdapter()) != this) {
+            return false;
+        }
+        int headerCount = listView instanceof ListView ? ((ListView) listView).getHeaderViewsCount() : 0;
+        int firstVisible = listView.getFirstVisiblePosition() - headerCount;
+        int lastVisible = listView.getLastVisiblePosition() - headerCount;
+        int start = Math.max(positionStart, firstVisible);
+        int end = Math.min(positionStart + itemCount - 1, lastVisible);
+        for (int position = start; position <= end; position++) {
+            View child = listView.getChildAt(position - firstVisible);
+            ViewDataBinding binding = child != null ? DataBindingUtil.getBinding(child) : null;
+            if (binding == null) {
+                return false;
+            }
+            ResolvedBinding resolvedBinding = resolvedBinding(position);
+            Object boundLayout = child.getTag(R.id.bindingcollectionadapter_layout);
+            if (!(boundLayout instanceof Integer) || (Integer) boundLayout != resolvedBinding.layoutRes()) {
+                return false;
+            }
+            bindBinding(binding, resolvedBinding.variableId(), resolvedBinding.layoutRes(), position, items.get(position));
+        }
+        return true;
+    }
+
     @Override
     public final View getDropDownView(int position, View convertView, ViewGroup parent) {
         if (inflater == null) {
@@ -158,13 +323,13 @@ public class BindingListViewAdapter<T> extends BaseAdapter implements BindingCol
             int layoutRes = dropDownItemLayout;
             ViewDataBinding binding;
             if (convertView == null) {
-                binding = onCreateBinding(inflater, layoutRes, parent);
+                binding = createBinding(layoutRes, parent);
             } else {
                 binding = DataBindingUtil.getBinding(convertView);
             }
 
             T item = items.get(position);
-            onBindBinding(binding, itemBinding.variableId(), layoutRes, position, item);
+            bindBinding(binding, resolvedBinding(position).variableId(), layoutRes, position, item);
 
             return binding.getRoot();
         }
@@ -173,20 +338,16 @@ public class BindingListViewAdapter<T> extends BaseAdapter implements BindingCol
     @Override
     public int getItemViewType(int position) {
         ensureLayoutsInit();
-        T item = items.get(position);
-        itemBinding.onItemBind(position, item);
+        return viewTypes.viewTypeOf(resolvedBinding(position).layoutRes());
+    }
 
-        int firstEmpty = 0;
-        for (int i = 0; i < layouts.length; i++) {
-            if (itemBinding.layoutRes() == layouts[i]) {
-                return i;
-            }
-            if (layouts[i] == 0) {
-                firstEmpty = i;
-            }
-        }
-        layouts[firstEmpty] = itemBinding.layoutRes();
-        return firstEmpty;
+    /**
+     * Returns what the item binding resolved to for the given position. {@link
+     * ItemBinding#onItemBind(int, Object)} is only called again once the data has changed, so the
+     * view type and the binding always agree even though the item binding is shared.
+     */
+    private ResolvedBinding resolvedBinding(int position) {
+        return resolvedBindings.get(itemBinding, items, position);
     }
 
     @Override
@@ -201,8 +362,8 @@ public class BindingListViewAdapter<T> extends BaseAdapter implements BindingCol
 
     private int ensureLayoutsInit() {
         int count = itemTypeCount;
-        if (layouts == null) {
-            layouts = new int[count];
+        if (viewTypes == null) {
+            viewTypes = new LayoutViewTypes(count);
         }
         return count;
     }
@@ -216,32 +377,46 @@ public class BindingListViewAdapter<T> extends BaseAdapter implements BindingCol
 
         @Override
         public void onChanged(ObservableList sender) {
+            notifyDataSetChanged(BindingMetrics.Notification.CHANGED);
+        }
+
+        @Override
+        public void onItemRangeChanged(ObservableList sender, int positionStart, int itemCount) {
             BindingListViewAdapter<T> adapter = adapterRef.get();
             if (adapter == null) {
                 return;
             }
             Utils.ensureChangeOnMainThread();
-            adapter.notifyDataSetChanged();
-        }
-
-        @Override
-        public void onItemRangeChanged(ObservableList sender, int positionStart, int itemCount) {
-            onChanged(sender);
+            adapter.recordNotification(BindingMetrics.Notification.ITEM_RANGE_CHANGED);
+            adapter.resolvedBindings.invalidate(positionStart, itemCount);
+            if (!adapter.rebindVisibleRows || !adapter.tryRebindVisibleRows(positionStart, itemCount)) {
+                adapter.notifyDataSetChanged();
+            }
         }
 
         @Override
         public void onItemRangeInserted(ObservableList sender, int positionStart, int itemCount) {
-            onChanged(sender);
+            notifyDataSetChanged(BindingMetrics.Notification.ITEM_RANGE_INSERTED);
         }
 
         @Override
         public void onItemRangeMoved(ObservableList sender, int fromPosition, int toPosition, int itemCount) {
-            onChanged(sender);
+            notifyDataSetChanged(BindingMetrics.Notification.ITEM_RANGE_MOVED);
         }
 
         @Override
         public void onItemRangeRemoved(ObservableList sender, int positionStart, int itemCount) {
-            onChanged(sender);
+            notifyDataSetChanged(BindingMetrics.Notification.ITEM_RANGE_REMOVED);
+        }
+
+        private void notifyDataSetChanged(BindingMetrics.Notification notification) {
+            BindingListViewAdapter<T> adapter = adapterRef.get();
+            if (adapter == null) {
+                return;
+            }
+            Utils.ensureChangeOnMainThread();
+            adapter.recordNotification(notification);
+            adapter.notifyDataSetChanged();
         }
     }
 
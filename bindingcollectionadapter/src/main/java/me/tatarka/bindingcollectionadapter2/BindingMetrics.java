@@ -0,0 +1,259 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import android.databinding.ViewDataBinding;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long the adapters it's set on take to inflate and bind items, by layout, and how many
+ * list changes they were notified of. Set it with {@code setMetrics()} on a {@link
+ * BindingListViewAdapter}, {@link BindingViewPagerAdapter} or {@code BindingRecyclerViewAdapter},
+ * one instance may be shared by all adapters of a screen. Nothing is recorded by adapters without
+ * one.
+ * <p>
+ * Take a {@link #snapshot()} or add a {@link Listener} to get a {@link Snapshot} every {@link
+ * #setReportInterval(long)}. Recording happens on the main thread, so call this class from there
+ * too.
+ */
+public final class BindingMetrics {
+
+    /**
+     * The phases of showing an item that are timed.
+     */
+    public enum Phase {
+        /**
+         * Calls to {@code onCreateBinding()}, which usually inflates the layout.
+         */
+        INFLATE,
+        /**
+         * Calls to {@code onBindBinding()}, including executing the pending bindings.
+         */
+        BIND,
+        /**
+         * Calls to {@link ViewDataBinding#executePendingBindings()} made while binding an item.
+         * Bindings executed later, like deferred ones of a {@code BindingRecyclerViewAdapter},
+         * aren't included.
+         */
+        EXECUTE_PENDING_BINDINGS
+    }
+
+    /**
+     * The kinds of {@link android.databinding.ObservableList} change notifications that are
+     * counted.
+     */
+    public enum Notification {
+        CHANGED,
+        ITEM_RANGE_CHANGED,
+        ITEM_RANGE_INSERTED,
+        ITEM_RANGE_MOVED,
+        ITEM_RANGE_REMOVED
+    }
+
+    /**
+     * Receives the metrics recorded since the previous report.
+     */
+    public interface Listener {
+        void onReport(BindingMetrics metrics, Snapshot snapshot);
+    }
+
+    private static final int PHASE_COUNT = Phase.values().length;
+
+    // Histograms by phase for each layout.
+    private final Map<Integer, DurationHistogram[]> histograms = new HashMap<>();
+    private final long[] notificationCounts = new long[Notification.values().length];
+    private final List<Listener> listeners = new ArrayList<>();
+    private long reportIntervalNanos;
+    private long windowStartNanos = System.nanoTime();
+    // Neighboring items commonly share a layout.
+    private int lastLayoutRes;
+    private DurationHistogram[] lastHistograms;
+
+    /**
+     * Sets how often listeners get a report in milliseconds, checked whenever something is
+     * recorded. If 0, they only get one when you call {@link #report()}. Defaults to 0.
+     */
+    public void setReportInterval(long intervalMs) {
+        reportIntervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns the metrics recorded since they were last reset.
+     */
+    public Snapshot snapshot() {
+        Map<Integer, DurationHistogram[]> copies = new HashMap<>(histograms.size());
+        for (Map.Entry<Integer, DurationHistogram[]> entry : histograms.entrySet()) {
+            DurationHistogram[] layoutHistograms = entry.getValue();
+            DurationHistogram[] layoutCopies = new DurationHistogram[PHASE_COUNT];
+            for (int i = 0; i < PHASE_COUNT; i++) {
+                layoutCopies[i] = layoutHistograms[i].copy();
+            }
+            copies.put(entry.getKey(), layoutCopies);
+        }
+        return new Snapshot(System.nanoTime() - windowStartNanos, copies, notificationCounts.clone());
+    }
+
+    /**
+     * Sends a snapshot to the listeners and resets the metrics.
+     */
+    public void report() {
+        Snapshot snapshot = snapshot();
+        reset();
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onReport(this, snapshot);
+        }
+    }
+
+    /**
+     * Drops all recorded metrics.
+     */
+    public void reset() {
+        histograms.clear();
+        lastHistograms = null;
+        Arrays.fill(notificationCounts, 0);
+        windowStartNanos = System.nanoTime();
+    }
+
+    long startTime() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the time since the given start time for the phase of an item of the given layout.
+     */
+    void record(Phase phase, @LayoutRes int layoutRes, long startNanos) {
+        long now = System.nanoTime();
+        DurationHistogram[] layoutHistograms;
+        if (lastHistograms != null && layoutRes == lastLayoutRes) {
+            layoutHistograms = lastHistograms;
+        } else {
+            layoutHistograms = histograms.get(layoutRes);
+            if (layoutHistograms == null) {
+                layoutHistograms = new DurationHistogram[PHASE_COUNT];
+                for (int i = 0; i < PHASE_COUNT; i++) {
+                    layoutHistograms[i] = new DurationHistogram();
+                }
+                histograms.put(layoutRes, layoutHistograms);
+            }
+            lastLayoutRes = layoutRes;
+            lastHistograms = layoutHistograms;
+        }
+        layoutHistograms[phase.ordinal()].record(now - startNanos);
+        maybeReport(now);
+    }
+
+    void recordNotification(Notification notification) {
+        notificationCounts[notification.ordinal()]++;
+        if (reportIntervalNanos > 0) {
+            maybeReport(System.nanoTime());
+        }
+    }
+
+    private void maybeReport(long now) {
+        if (reportIntervalNanos > 0 && now - windowStartNanos >= reportIntervalNanos && !listeners.isEmpty()) {
+            report();
+        }
+    }
+
+    /**
+     * Executes the binding's pending bindings, recording how long it took if there are metrics.
+     */
+    static void executePendingBindings(@Nullable BindingMetrics metrics, ViewDataBinding binding, @LayoutRes int layoutRes) {
+        if (metrics == null) {
+            binding.executePendingBindings();
+            return;
+        }
+        long start = metrics.startTime();
+        binding.executePendingBindings();
+        metrics.record(Phase.EXECUTE_PENDING_BINDINGS, layoutRes, start);
+    }
+
+    /**
+     * The metrics recorded over a period of time.
+     */
+    public static final class Snapshot {
+        private final long durationNanos;
+        private final Map<Integer, DurationHistogram[]> histograms;
+        private final long[] notificationCounts;
+
+        Snapshot(long durationNanos, Map<Integer, DurationHistogram[]> histograms, long[] notificationCounts) {
+            this.durationNanos = durationNanos;
+            this.histograms = histograms;
+            this.notificationCounts = notificationCounts;
+        }
+
+        /**
+         * Returns how long the metrics were recorded for.
+         */
+        public long durationNanos() {
+            return durationNanos;
+        }
+
+        /**
+         * Returns the layouts that have durations recorded.
+         */
+        public int[] layouts() {
+            int[] layouts = new int[histograms.size()];
+            int i = 0;
+            for (Integer layoutRes : histograms.keySet()) {
+                layouts[i++] = layoutRes;
+            }
+            Arrays.sort(layouts);
+            return layouts;
+        }
+
+        /**
+         * Returns the durations of the phase for items of the given layout, or null if nothing was
+         * recorded for the layout.
+         */
+        @Nullable
+        public DurationHistogram histogram(Phase phase, @LayoutRes int layoutRes) {
+            DurationHistogram[] layoutHistograms = histograms.get(layoutRes);
+            return layoutHistograms != null ? layoutHistograms[phase.ordinal()] : null;
+        }
+
+        /**
+         * Returns the durations of the phase for items of all layouts.
+         */
+        public DurationHistogram histogram(Phase phase) {
+            DurationHistogram result = new DurationHistogram();
+            for (DurationHistogram[] layoutHistograms : histograms.values()) {
+                result.addAll(layoutHistograms[phase.ordinal()]);
+            }
+            return result;
+        }
+
+        /**
+         * Returns how many times the adapters were notified of the given kind of change.
+         */
+        public long notificationCount(Notification notification) {
+            return notificationCounts[notification.ordinal()];
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder result = new StringBuilder("Snapshot{durationNanos=").append(durationNanos);
+            for (Phase phase : Phase.values()) {
+                result.append(", ").append(phase).append('=').append(histogram(phase));
+            }
+            for (Notification notification : Notification.values()) {
+                result.append(", ").append(notification).append('=').append(notificationCount(notification));
+            }
+            return result.append('}').toString();
+        }
+    }
+}
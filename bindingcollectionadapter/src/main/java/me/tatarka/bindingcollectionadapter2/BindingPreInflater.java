@@ -0,0 +1,173 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import android.content.Context;
+import android.databinding.DataBindingUtil;
+import android.databinding.ViewDataBinding;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.AttributeSet;
+import android.util.SparseArray;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Inflates item layouts on a background thread ahead of time, so that an adapter can take them
+ * instead of inflating them on the main thread when the list is first shown. Set it on the adapter
+ * and call {@link #preInflate(int, int)} for the layouts you expect, before the items are set.
+ * <p>
+ * Like {@code AsyncLayoutInflater}, the views are inflated without the {@link
+ * LayoutInflater.Factory} of the activity, so you won't get the AppCompat versions of widgets, and
+ * on a thread without a {@link android.os.Looper}. A layout that fails to inflate there, for
+ * example because one of its views creates a {@link android.os.Handler}, is inflated on demand on
+ * the main thread from then on. The data binding itself is always created on the main thread.
+ */
+public class BindingPreInflater {
+    private static ExecutorService inflateExecutor;
+
+    private final ViewGroup parent;
+    private final LayoutInflater inflater;
+    // Guarded by itself. Inflated views of each layout.
+    private final SparseArray<ArrayDeque<View>> inflated = new SparseArray<>();
+    // Guarded by inflated.
+    private final Set<Integer> failedLayouts = new HashSet<>();
+    // Guarded by inflated. Incremented by clear() so that running inflations are dropped.
+    private int generation;
+
+    /**
+     * Constructs a new instance that inflates layouts for the given parent, the {@link
+     * android.widget.AdapterView} or {@code RecyclerView} the items will be shown in.
+     */
+    public BindingPreInflater(ViewGroup parent) {
+        this.parent = parent;
+        this.inflater = new BasicInflater(parent.getContext());
+    }
+
+    /**
+     * Inflates the given number of views of the layout in the background.
+     */
+    public void preInflate(@LayoutRes final int layoutRes, int count) {
+        final int generation;
+        synchronized (inflated) {
+            if (failedLayouts.contains(layoutRes)) {
+                return;
+            }
+            generation = this.generation;
+        }
+        for (int i = 0; i < count; i++) {
+            inflateExecutor().execute(new Runnable() {
+                @Override
+                public void run() {
+                    inflate(layoutRes, generation);
+                }
+            });
+        }
+    }
+
+    private void inflate(@LayoutRes int layoutRes, int generation) {
+        synchronized (inflated) {
+            if (generation != this.generation || failedLayouts.contains(layoutRes)) {
+                return;
+            }
+        }
+        View view;
+        try {
+            view = inflater.inflate(layoutRes, parent, false);
+        } catch (RuntimeException e) {
+            synchronized (inflated) {
+                failedLayouts.add(layoutRes);
+            }
+            return;
+        }
+        synchronized (inflated) {
+            if (generation != this.generation) {
+                return;
+            }
+            ArrayDeque<View> views = inflated.get(layoutRes);
+            if (views == null) {
+                views = new ArrayDeque<>();
+                inflated.put(layoutRes, views);
+            }
+            views.add(view);
+        }
+    }
+
+    /**
+     * Returns a binding for a view of the given layout that was inflated ahead of time, or null if
+     * there isn't one (yet).
+     */
+    @Nullable
+    @MainThread
+    public ViewDataBinding obtain(@LayoutRes int layoutRes) {
+        View view;
+        synchronized (inflated) {
+            ArrayDeque<View> views = inflated.get(layoutRes);
+            view = views != null ? views.poll() : null;
+        }
+        return view != null ? DataBindingUtil.<ViewDataBinding>bind(view) : null;
+    }
+
+    /**
+     * Drops all views inflated ahead of time and any still being inflated.
+     */
+    public void clear() {
+        synchronized (inflated) {
+            generation++;
+            inflated.clear();
+        }
+    }
+
+    private static synchronized ExecutorService inflateExecutor() {
+        if (inflateExecutor == null) {
+            inflateExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull Runnable r) {
+                    Thread thread = new Thread(r, "BindingPreInflater");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return inflateExecutor;
+    }
+
+    /**
+     * An inflater without factories, the same as {@code AsyncLayoutInflater} uses.
+     */
+    private static class BasicInflater extends LayoutInflater {
+        private static final String[] CLASS_PREFIX_LIST = {"android.widget.", "android.webkit.", "android.app."};
+
+        BasicInflater(Context context) {
+            super(context);
+        }
+
+        @Override
+        public LayoutInflater cloneInContext(Context newContext) {
+            return new BasicInflater(newContext);
+        }
+
+        @Override
+        protected View onCreateView(String name, AttributeSet attrs) throws ClassNotFoundException {
+            for (String prefix : CLASS_PREFIX_LIST) {
+                try {
+                    View view = createView(name, prefix, attrs);
+                    if (view != null) {
+                        return view;
+                    }
+                } catch (ClassNotFoundException e) {
+                    // Try the next prefix.
+                }
+            }
+            return super.onCreateView(name, attrs);
+        }
+    }
+}
@@ -6,17 +6,20 @@ import android.databinding.ViewDataBinding;
 import android.support.annotation.LayoutRes;
 import android.support.annotation.Nullable;
 import android.support.v4.view.PagerAdapter;
+import android.support.v4.view.ViewCompat;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * A {@link PagerAdapter} that binds items to layouts using the given {@link ItemBinding} or {@link
  * OnItemBind}. If you give it an {@link ObservableList} it will also updated itself based on
- * changes to that list.
+ * changes to that list. Instantiated pages of changed items are rebound in place as long as they
+ * keep their layout, so they keep their views.
  */
 public class BindingViewPagerAdapter<T> extends PagerAdapter implements BindingCollectionAdapter<T> {
     private ItemBinding<T> itemBinding;
@@ -24,6 +27,18 @@ public class BindingViewPagerAdapter<T> extends PagerAdapter implements BindingC
     private List<T> items;
     private LayoutInflater inflater;
     private PageTitles<T> pageTitles;
+    private final RecycledBindingPool recycledBindings = new RecycledBindingPool(0);
+    private final ItemPositionIndex itemPositions = new ItemPositionIndex();
+    // The pages currently instantiated.
+    private final List<Page> pages = new ArrayList<>();
+    // True while notifying a list change the item positions are already updated for.
+    private boolean notifyingListChange;
+    // What the page being bound resolved to, so onBindBinding() doesn't resolve it again.
+    @Nullable
+    private ResolvedBinding bindingPageResolved;
+    private int bindingPagePosition;
+    @Nullable
+    private BindingMetrics metrics;
 
     @Override
     public void setItemBinding(ItemBinding<T> itemBinding) {
@@ -49,6 +64,7 @@ public class BindingViewPagerAdapter<T> extends PagerAdapter implements BindingC
             ((ObservableList<T>) items).addOnListChangedCallback(callback);
         }
         this.items = items;
+        itemPositions.setItems(items);
         notifyDataSetChanged();
     }
 
@@ -64,8 +80,12 @@ public class BindingViewPagerAdapter<T> extends PagerAdapter implements BindingC
 
     @Override
     public void onBindBinding(ViewDataBinding binding, int variableId, @LayoutRes int layoutRes, int position, T item) {
-        if (itemBinding.bind(binding, item)) {
-            binding.executePendingBindings();
+        // A subclass may pass an item of its own, it's bound the way the item at the position is.
+        ResolvedBinding resolvedBinding = bindingPageResolved != null && bindingPagePosition == position
+                ? bindingPageResolved
+                : itemBinding.resolve(position, item);
+        if (resolvedBinding.bind(binding, variableId, item)) {
+            BindingMetrics.executePendingBindings(metrics, binding, layoutRes);
         }
     }
 
@@ -76,6 +96,30 @@ public class BindingViewPagerAdapter<T> extends PagerAdapter implements BindingC
         this.pageTitles = pageTitles;
     }
 
+    /**
+     * Sets the most bindings of destroyed pages kept for each layout. New pages of the same layout
+     * are bound to one of those instead of inflating a new one, so paging through many items only
+     * inflates about as many pages as the {@code ViewPager} keeps at once. A recycled page keeps
+     * any view state not set through data binding, like a scroll position, so only enable this if
+     * your pages are fully bound. Defaults to 0.
+     */
+    public void setMaxRecycledPages(int maxPerLayout) {
+        recycledBindings.setMaxPerLayout(maxPerLayout);
+    }
+
+    /**
+     * Sets the {@link BindingMetrics} to record inflate and bind times and list change
+     * notifications to, or null to not record them. Defaults to null.
+     */
+    public void setMetrics(@Nullable BindingMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Nullable
+    public BindingMetrics getMetrics() {
+        return metrics;
+    }
+
     @Override
     public int getCount() {
         return items == null ? 0 : items.size();
@@ -93,19 +137,108 @@ public class BindingViewPagerAdapter<T> extends PagerAdapter implements BindingC
         }
 
         T item = items.get(position);
-        itemBinding.onItemBind(position, item);
+        ResolvedBinding resolvedBinding = itemBinding.resolve(position, item);
 
-        ViewDataBinding binding = onCreateBinding(inflater, itemBinding.layoutRes(), container);
-        onBindBinding(binding, itemBinding.variableId(), itemBinding.layoutRes(), position, item);
+        ViewDataBinding binding = recycledBindings.get(resolvedBinding.layoutRes());
+        if (binding == null) {
+            binding = createBinding(resolvedBinding.layoutRes(), container);
+            binding.getRoot().setTag(R.id.bindingcollectionadapter_layout, resolvedBinding.layoutRes());
+        }
+        bindBinding(binding, resolvedBinding, position, item);
 
         container.addView(binding.getRoot());
         binding.getRoot().setTag(item);
+        pages.add(new Page(binding, position));
         return binding.getRoot();
     }
 
+    private ViewDataBinding createBinding(@LayoutRes int layoutRes, ViewGroup container) {
+        BindingMetrics metrics = this.metrics;
+        if (metrics == null) {
+            return onCreateBinding(inflater, layoutRes, container);
+        }
+        long start = metrics.startTime();
+        ViewDataBinding binding = onCreateBinding(inflater, layoutRes, container);
+        metrics.record(BindingMetrics.Phase.INFLATE, layoutRes, start);
+        return binding;
+    }
+
+    private void bindBinding(ViewDataBinding binding, ResolvedBinding resolvedBinding, int position, T item) {
+        int variableId = resolvedBinding.variableId();
+        int layoutRes = resolvedBinding.layoutRes();
+        bindingPageResolved = resolvedBinding;
+        bindingPagePosition = position;
+        try {
+            BindingMetrics metrics = this.metrics;
+            if (metrics == null) {
+                onBindBinding(binding, variableId, layoutRes, position, item);
+                return;
+            }
+            long start = metrics.startTime();
+            onBindBinding(binding, variableId, layoutRes, position, item);
+            metrics.record(BindingMetrics.Phase.BIND, layoutRes, start);
+        } finally {
+            bindingPageResolved = null;
+        }
+    }
+
     @Override
     public void destroyItem(ViewGroup container, int position, Object object) {
-        container.removeView((View) object);
+        View view = (View) object;
+        Page page = page(view);
+        if (page != null) {
+            pages.remove(page);
+        }
+        container.removeView(view);
+        recycle(view);
+    }
+
+    /**
+     * Rebinds the instantiated pages in the given range to their current items in place. Returns
+     * false if a page needs a different layout and has to be instantiated again.
+     */
+    boolean rebindPages(int positionStart, int itemCount) {
+        boolean rebound = true;
+        for (int i = 0, size = pages.size(); i < size; i++) {
+            Page page = pages.get(i);
+            int position = page.position;
+            if (position < positionStart || position >= positionStart + itemCount || position >= items.size()) {
+                continue;
+            }
+            T item = items.get(position);
+            ResolvedBinding resolvedBinding = itemBinding.resolve(position, item);
+            View view = page.binding.getRoot();
+            Object layoutRes = view.getTag(R.id.bindingcollectionadapter_layout);
+            if (layoutRes instanceof Integer && (Integer) layoutRes == resolvedBinding.layoutRes()) {
+                bindBinding(page.binding, resolvedBinding, position, item);
+                view.setTag(item);
+            } else {
+                rebound = false;
+            }
+        }
+        return rebound;
+    }
+
+    @Nullable
+    private Page page(View view) {
+        for (int i = 0, size = pages.size(); i < size; i++) {
+            Page page = pages.get(i);
+            if (page.binding.getRoot() == view) {
+                return page;
+            }
+        }
+        return null;
+    }
+
+    private void recycle(View view) {
+        if (recycledBindings.getMaxPerLayout() <= 0 || ViewCompat.hasTransientState(view)) {
+            return;
+        }
+        Object layoutRes = view.getTag(R.id.bindingcollectionadapter_layout);
+        ViewDataBinding binding = DataBindingUtil.getBinding(view);
+        if (layoutRes instanceof Integer && binding != null && recycledBindings.put((Integer) layoutRes, binding)) {
+            view.setTag(null);
+        }
     }
 
     @Override
@@ -113,18 +246,49 @@ public class BindingViewPagerAdapter<T> extends PagerAdapter implements BindingC
         return view == object;
     }
 
-    @SuppressWarnings("unchecked")
+    @Override
+    public void notifyDataSetChanged() {
+        if (!notifyingListChange) {
+            // The list may have changed in any way.
+            itemPositions.invalidateAll();
+        }
+        super.notifyDataSetChanged();
+    }
+
+    private void recordNotification(BindingMetrics.Notification notification) {
+        if (metrics != null) {
+            metrics.recordNotification(notification);
+        }
+    }
+
+    /**
+     * Notifies a change of the {@link ObservableList} that {@link #itemPositions} is already
+     * updated for.
+     */
+    void notifyListChanged() {
+        notifyingListChange = true;
+        try {
+            notifyDataSetChanged();
+        } finally {
+            notifyingListChange = false;
+        }
+    }
+
     @Override
     public int getItemPosition(Object object) {
-        T item = (T) ((View) object).getTag();
-        if (items != null) {
-            for (int i = 0; i < items.size(); i++) {
-                if (item == items.get(i)) {
-                    return i;
-                }
+        View view = (View) object;
+        int position = itemPositions.indexOf(view.getTag());
+        if (position < 0) {
+            return POSITION_NONE;
+        }
+        Page page = page(view);
+        if (page != null) {
+            if (page.position == position) {
+                return POSITION_UNCHANGED;
             }
+            page.position = position;
         }
-        return POSITION_NONE;
+        return position;
     }
 
     private static class WeakReferenceOnListChangedCallback<T> extends ObservableList.OnListChangedCallback<ObservableList<T>> {
@@ -141,27 +305,61 @@ public class BindingViewPagerAdapter<T> extends PagerAdapter implements BindingC
                 return;
             }
             Utils.ensureChangeOnMainThread();
-            adapter.notifyDataSetChanged();
+            adapter.recordNotification(BindingMetrics.Notification.CHANGED);
+            adapter.itemPositions.invalidateAll();
+            adapter.notifyListChanged();
         }
 
         @Override
         public void onItemRangeChanged(ObservableList sender, int positionStart, int itemCount) {
-            onChanged(sender);
+            BindingViewPagerAdapter<T> adapter = adapterRef.get();
+            if (adapter == null) {
+                return;
+            }
+            Utils.ensureChangeOnMainThread();
+            adapter.recordNotification(BindingMetrics.Notification.ITEM_RANGE_CHANGED);
+            adapter.itemPositions.onItemRangeChanged(positionStart, itemCount);
+            // Page titles may depend on the items, so let title strips know.
+            if (!adapter.rebindPages(positionStart, itemCount) || adapter.pageTitles != null) {
+                adapter.notifyListChanged();
+            }
         }
 
         @Override
         public void onItemRangeInserted(ObservableList sender, int positionStart, int itemCount) {
-            onChanged(sender);
+            onStructureChanged(BindingMetrics.Notification.ITEM_RANGE_INSERTED, positionStart);
         }
 
         @Override
         public void onItemRangeMoved(ObservableList sender, int fromPosition, int toPosition, int itemCount) {
-            onChanged(sender);
+            onStructureChanged(BindingMetrics.Notification.ITEM_RANGE_MOVED, Math.min(fromPosition, toPosition));
         }
 
         @Override
         public void onItemRangeRemoved(ObservableList sender, int positionStart, int itemCount) {
-            onChanged(sender);
+            onStructureChanged(BindingMetrics.Notification.ITEM_RANGE_REMOVED, positionStart);
+        }
+
+        private void onStructureChanged(BindingMetrics.Notification notification, int positionStart) {
+            BindingViewPagerAdapter<T> adapter = adapterRef.get();
+            if (adapter == null) {
+                return;
+            }
+            Utils.ensureChangeOnMainThread();
+            adapter.recordNotification(notification);
+            adapter.itemPositions.invalidateFrom(positionStart);
+            adapter.notifyListChanged();
+        }
+    }
+
+    private static class Page {
+        final ViewDataBinding binding;
+        // The position the ViewPager knows the page at.
+        int position;
+
+        Page(ViewDataBinding binding, int position) {
+            this.binding = binding;
+            this.position = position;
         }
     }
 
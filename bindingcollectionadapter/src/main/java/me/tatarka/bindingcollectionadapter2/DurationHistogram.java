@@ -0,0 +1,124 @@
+package me.tatarka.bindingcollectionadapter2;
+
+/**
+ * A histogram of durations in nanoseconds with power of two buckets: bucket 0 holds durations of
+ * 0, and bucket {@code i} holds durations from {@code 2^(i-1)} up to {@code 2^i - 1}. You get one
+ * from a {@link BindingMetrics.Snapshot}, it doesn't change once you have it.
+ */
+public final class DurationHistogram {
+    /**
+     * The number of buckets.
+     */
+    public static final int BUCKET_COUNT = 64;
+
+    private final long[] buckets = new long[BUCKET_COUNT];
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+
+    DurationHistogram() {
+    }
+
+    void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets[bucketOf(nanos)]++;
+        count++;
+        totalNanos += nanos;
+        if (nanos > maxNanos) {
+            maxNanos = nanos;
+        }
+    }
+
+    void addAll(DurationHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] += other.buckets[i];
+        }
+        count += other.count;
+        totalNanos += other.totalNanos;
+        maxNanos = Math.max(maxNanos, other.maxNanos);
+    }
+
+    DurationHistogram copy() {
+        DurationHistogram copy = new DurationHistogram();
+        copy.addAll(this);
+        return copy;
+    }
+
+    /**
+     * Returns the number of recorded durations.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of all recorded durations.
+     */
+    public long totalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Returns the longest recorded duration.
+     */
+    public long maxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Returns the mean of the recorded durations, or 0 if there are none.
+     */
+    public long meanNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+
+    /**
+     * Returns an upper bound of the given percentile (0 to 100) of recorded durations, the upper
+     * bound of the bucket it falls in but no more than {@link #maxNanos()}.
+     */
+    public long percentileNanos(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * Math.min(Math.max(percentile, 0), 100) / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets[i];
+            if (seen >= rank && seen > 0) {
+                return Math.min(bucketUpperBoundNanos(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    /**
+     * Returns the number of recorded durations in the given bucket.
+     */
+    public long countInBucket(int bucket) {
+        return buckets[bucket];
+    }
+
+    /**
+     * Returns the longest duration the given bucket holds.
+     */
+    public static long bucketUpperBoundNanos(int bucket) {
+        return bucket == BUCKET_COUNT - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    static int bucketOf(long nanos) {
+        return 64 - Long.numberOfLeadingZeros(nanos);
+    }
+
+    @Override
+    public String toString() {
+        return "DurationHistogram{count=" + count
+                + ", meanNanos=" + meanNanos()
+                + ", p50Nanos=" + percentileNanos(50)
+                + ", p90Nanos=" + percentileNanos(90)
+                + ", p99Nanos=" + percentileNanos(99)
+                + ", maxNanos=" + maxNanos
+                + "}";
+    }
+}
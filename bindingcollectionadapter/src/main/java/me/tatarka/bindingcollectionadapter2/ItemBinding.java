@@ -2,11 +2,20 @@ package me.tatarka.bindingcollectionadapter2;
 
 import android.databinding.ViewDataBinding;
 import android.support.annotation.LayoutRes;
+import android.support.annotation.Nullable;
 import android.util.SparseArray;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
  * Provides the necessary information to bind an item in a collection to a view. This includes the
  * variable id and the layout as well as any extra bindings you may want to provide.
+ * <p>
+ * The adapters get what to bind for an item with {@link #resolve(int, Object)}, which calls the
+ * {@link OnItemBind} on a copy of this binding. So for a binding created with {@link
+ * #of(OnItemBind)}, {@link #variableId()} and {@link #layoutRes()} only reflect explicit calls to
+ * {@link #onItemBind(int, Object)}, not the items an adapter bound last.
  *
  * @param <T> The item type.
  */
@@ -19,12 +28,16 @@ public final class ItemBinding<T> {
     public static final int VAR_NONE = 0;
     private static final int VAR_INVALID = -1;
     private static final int LAYOUT_NONE = 0;
+    private static final int RECENT_RESOLVED_SIZE = 4;
+    // Past this many distinct resolved bindings, like when every item binds its own extra, new
+    // ones are no longer interned so they can be collected.
+    private static final int MAX_INTERNED = 64;
 
     /**
      * Constructs an instance with the given variable id and layout.
      */
     public static <T> ItemBinding<T> of(int variableId, @LayoutRes int layoutRes) {
-        return new ItemBinding<T>(null).set(variableId, layoutRes);
+        return new ItemBinding<T>((OnItemBind<T>) null).set(variableId, layoutRes);
     }
 
     /**
@@ -41,13 +54,51 @@ public final class ItemBinding<T> {
     }
 
     private final OnItemBind<T> onItemBind;
+    // The binding this is a copy of, used by resolve() so that the OnItemBind callback never
+    // touches shared state. Null if this was created by of().
+    @Nullable
+    private final ItemBinding<T> owner;
     private int variableId;
     @LayoutRes
     private int layoutRes;
     private SparseArray<Object> extraBindings;
+    // Incremented whenever the extra bindings change, so a snapshot of them can be reused.
+    private int extrasVersion;
+    // The extra bindings as parallel arrays, rebuilt by freezeExtras() once they changed. They are
+    // never modified so resolved bindings can share them.
+    private int[] frozenExtraIds;
+    private Object[] frozenExtraValues;
+    private int frozenExtrasVersion = -1;
+    private boolean applyExtrasOnce;
+    // Incremented whenever this binding is reconfigured, see version().
+    private int version;
+    // Only set if owner is null.
+    private final ConcurrentHashMap<ResolvedBinding, ResolvedBinding> interned;
+    // A copy that isn't in use by resolve() right now, threads that find none make their own. This
+    // is a field and not a ThreadLocal, since a thread's value references this binding and would
+    // keep it from ever being collected.
+    private final AtomicReference<ItemBinding<T>> idleResolver;
+    // Only used if owner is not null, the versions of the owner's extras and of this binding's
+    // extras right after they were last copied from the owner.
+    private int ownerExtrasVersion = -1;
+    private int copiedExtrasVersion = -1;
+    // The last few snapshots taken and the extras version each was taken at.
+    private final ResolvedBinding[] recentResolved = new ResolvedBinding[RECENT_RESOLVED_SIZE];
+    private final int[] recentExtrasVersions = new int[RECENT_RESOLVED_SIZE];
+    private int nextRecentResolved;
 
     private ItemBinding(OnItemBind<T> onItemBind) {
         this.onItemBind = onItemBind;
+        this.owner = null;
+        this.interned = new ConcurrentHashMap<>();
+        this.idleResolver = onItemBind == null ? null : new AtomicReference<ItemBinding<T>>();
+    }
+
+    private ItemBinding(ItemBinding<T> owner) {
+        this.onItemBind = owner.onItemBind;
+        this.owner = owner;
+        this.interned = null;
+        this.idleResolver = null;
     }
 
     /**
@@ -55,8 +106,11 @@ public final class ItemBinding<T> {
      * OnItemBind#onItemBind(ItemBinding, int, Object)}.
      */
     public final ItemBinding<T> set(int variableId, @LayoutRes int layoutRes) {
-        this.variableId = variableId;
-        this.layoutRes = layoutRes;
+        if (this.variableId != variableId || this.layoutRes != layoutRes) {
+            this.variableId = variableId;
+            this.layoutRes = layoutRes;
+            version++;
+        }
         return this;
     }
 
@@ -65,7 +119,10 @@ public final class ItemBinding<T> {
      * int, Object)}.
      */
     public final ItemBinding<T> variableId(int variableId) {
-        this.variableId = variableId;
+        if (this.variableId != variableId) {
+            this.variableId = variableId;
+            version++;
+        }
         return this;
     }
 
@@ -74,7 +131,10 @@ public final class ItemBinding<T> {
      * Object)}.
      */
     public final ItemBinding<T> layoutRes(@LayoutRes int layoutRes) {
-        this.layoutRes = layoutRes;
+        if (this.layoutRes != layoutRes) {
+            this.layoutRes = layoutRes;
+            version++;
+        }
         return this;
     }
 
@@ -86,7 +146,12 @@ public final class ItemBinding<T> {
         if (extraBindings == null) {
             extraBindings = new SparseArray<>(1);
         }
-        extraBindings.put(variableId, value);
+        int index = extraBindings.indexOfKey(variableId);
+        if (index < 0 || extraBindings.valueAt(index) != value) {
+            extraBindings.put(variableId, value);
+            extrasVersion++;
+            version++;
+        }
         return this;
     }
 
@@ -95,8 +160,10 @@ public final class ItemBinding<T> {
      * OnItemBind#onItemBind(ItemBinding, int, Object)}.
      */
     public final ItemBinding<T> clearExtras() {
-        if (extraBindings != null) {
+        if (extraBindings != null && extraBindings.size() > 0) {
             extraBindings.clear();
+            extrasVersion++;
+            version++;
         }
         return this;
     }
@@ -106,27 +173,56 @@ public final class ItemBinding<T> {
      * OnItemBind#onItemBind(ItemBinding, int, Object)}.
      */
     public ItemBinding<T> removeExtra(int variableId) {
-        if (extraBindings != null) {
+        if (extraBindings != null && extraBindings.indexOfKey(variableId) >= 0) {
             extraBindings.remove(variableId);
+            extrasVersion++;
+            version++;
+        }
+        return this;
+    }
+
+    /**
+     * Sets whether extra bindings are only set on a {@link ViewDataBinding} if it wasn't last bound
+     * with the very same extras. This saves re-setting constant extras like click listeners every
+     * time a recycled view is bound to a new item. Only enable this if nothing else sets the extra
+     * variables on the bindings. Defaults to false.
+     */
+    public final ItemBinding<T> applyExtrasOnce(boolean applyExtrasOnce) {
+        if (this.applyExtrasOnce != applyExtrasOnce) {
+            this.applyExtrasOnce = applyExtrasOnce;
+            version++;
         }
         return this;
     }
 
     /**
-     * Returns the current variable id of this binding.
+     * Returns the current variable id of this binding. For a binding created with an {@link
+     * OnItemBind} this is what the last {@link #onItemBind(int, Object)} call set, use {@link
+     * #resolve(int, Object)} to get it for an item.
      */
     public final int variableId() {
         return variableId;
     }
 
     /**
-     * Returns the current layout fo this binding.
+     * Returns the current layout of this binding. For a binding created with an {@link OnItemBind}
+     * this is what the last {@link #onItemBind(int, Object)} call set, use {@link #resolve(int,
+     * Object)} to get it for an item.
      */
     @LayoutRes
     public final int layoutRes() {
         return layoutRes;
     }
 
+    /**
+     * Returns a number that changes whenever the variable id, layout, extras or {@link
+     * #applyExtrasOnce(boolean)} of this binding are changed, so that bindings resolved earlier
+     * can be recognized as stale.
+     */
+    int version() {
+        return version;
+    }
+
     /**
      * Returns the current extra binding for the given variable id or null if one isn't present.
      */
@@ -138,8 +234,9 @@ public final class ItemBinding<T> {
     }
 
     /**
-     * Updates the state of the binding for the given item and position. This is called internally
-     * by the binding collection adapters.
+     * Updates the state of the binding for the given item and position. This changes the state
+     * of this binding, so it may only be used from one thread at a time, see {@link #resolve(int,
+     * Object)} for an alternative.
      */
     public void onItemBind(int position, T item) {
         if (onItemBind != null) {
@@ -155,12 +252,127 @@ public final class ItemBinding<T> {
         }
     }
 
+    /**
+     * Resolves the binding for the given item and position, without changing the state of this
+     * binding. Unlike {@link #onItemBind(int, Object)} this is safe to call from any thread, for
+     * example to resolve bindings ahead of time while diffing in the background, as long as this
+     * binding isn't reconfigured at the same time. Each call starts out with the extras that were
+     * bound on this binding. Items that resolve to the same variable id, layout and extras get the
+     * same {@link ResolvedBinding} instance.
+     */
+    public ResolvedBinding resolve(int position, T item) {
+        if (onItemBind == null) {
+            synchronized (this) {
+                return snapshot();
+            }
+        }
+        ItemBinding<T> resolver = idleResolver.getAndSet(null);
+        if (resolver == null) {
+            resolver = new ItemBinding<>(this);
+        }
+        try {
+            resolver.copyExtrasFrom(this);
+            resolver.onItemBind(position, item);
+            return resolver.snapshot();
+        } finally {
+            idleResolver.compareAndSet(null, resolver);
+        }
+    }
+
+    /**
+     * Resets the extras of this binding to the owner's, unless neither changed since the last
+     * time.
+     */
+    private void copyExtrasFrom(ItemBinding<T> owner) {
+        if (ownerExtrasVersion == owner.extrasVersion && copiedExtrasVersion == extrasVersion) {
+            return;
+        }
+        SparseArray<Object> ownerExtras = owner.extraBindings;
+        if (extraBindings != null) {
+            extraBindings.clear();
+        }
+        if (ownerExtras != null && ownerExtras.size() > 0) {
+            if (extraBindings == null) {
+                extraBindings = new SparseArray<>(ownerExtras.size());
+            }
+            for (int i = 0, size = ownerExtras.size(); i < size; i++) {
+                extraBindings.put(ownerExtras.keyAt(i), ownerExtras.valueAt(i));
+            }
+        }
+        extrasVersion++;
+        ownerExtrasVersion = owner.extrasVersion;
+        copiedExtrasVersion = extrasVersion;
+    }
+
+    /**
+     * Returns an immutable snapshot of the current state of this binding, reusing a recent or
+     * interned one if possible.
+     */
+    private ResolvedBinding snapshot() {
+        boolean applyExtrasOnce = owner != null ? owner.applyExtrasOnce : this.applyExtrasOnce;
+        for (int i = 0; i < RECENT_RESOLVED_SIZE; i++) {
+            ResolvedBinding recent = recentResolved[i];
+            if (recent != null
+                    && recent.variableId() == variableId
+                    && recent.layoutRes() == layoutRes
+                    && recent.applyExtrasOnce() == applyExtrasOnce
+                    && recentExtrasVersions[i] == extrasVersion) {
+                return recent;
+            }
+        }
+        freezeExtras();
+        ResolvedBinding resolved = new ResolvedBinding(variableId, layoutRes, frozenExtraIds, frozenExtraValues, applyExtrasOnce);
+        ConcurrentHashMap<ResolvedBinding, ResolvedBinding> interned = owner != null ? owner.interned : this.interned;
+        ResolvedBinding existing = interned.get(resolved);
+        if (existing != null) {
+            resolved = existing;
+        } else if (interned.size() < MAX_INTERNED) {
+            existing = interned.putIfAbsent(resolved, resolved);
+            if (existing != null) {
+                resolved = existing;
+            }
+        }
+        recentResolved[nextRecentResolved] = resolved;
+        recentExtrasVersions[nextRecentResolved] = extrasVersion;
+        nextRecentResolved = (nextRecentResolved + 1) % RECENT_RESOLVED_SIZE;
+        return resolved;
+    }
+
+    /**
+     * Rebuilds the frozen extras arrays if the extras changed since they were last built.
+     */
+    private void freezeExtras() {
+        if (frozenExtrasVersion == extrasVersion) {
+            return;
+        }
+        int size = extraBindings != null ? extraBindings.size() : 0;
+        if (size == 0) {
+            frozenExtraIds = null;
+            frozenExtraValues = null;
+        } else {
+            int[] extraIds = new int[size];
+            Object[] extraValues = new Object[size];
+            for (int i = 0; i < size; i++) {
+                extraIds[i] = extraBindings.keyAt(i);
+                extraValues[i] = extraBindings.valueAt(i);
+            }
+            frozenExtraIds = extraIds;
+            frozenExtraValues = extraValues;
+        }
+        frozenExtrasVersion = extrasVersion;
+    }
+
     /**
      * Binds the item and extra bindings to the given binding. Returns true if anything was bound
-     * and false otherwise. This is called internally by the binding collection adapters.
+     * and false otherwise.
      *
      * @throws IllegalStateException if the variable id isn't present in the layout.
+     * @deprecated Use {@link #resolve(int, Object)} and {@link ResolvedBinding#bind(ViewDataBinding,
+     * Object)}, which the adapters use. For a binding created with an {@link OnItemBind} this only
+     * binds what the last {@link #onItemBind(int, Object)} call set, the adapters don't call it on
+     * this binding.
      */
+    @Deprecated
     public boolean bind(ViewDataBinding binding, T item) {
         if (variableId == VAR_NONE) {
             return false;
@@ -169,15 +381,8 @@ public final class ItemBinding<T> {
         if (!result) {
             Utils.throwMissingVariable(binding, variableId, layoutRes);
         }
-        if (extraBindings != null) {
-            for (int i = 0, size = extraBindings.size(); i < size; i++) {
-                int variableId = extraBindings.keyAt(i);
-                Object value = extraBindings.valueAt(i);
-                if (variableId != VAR_NONE) {
-                    binding.setVariable(variableId, value);
-                }
-            }
-        }
+        freezeExtras();
+        ResolvedBinding.bindExtras(binding, frozenExtraIds, frozenExtraValues, applyExtrasOnce);
         return true;
     }
 }
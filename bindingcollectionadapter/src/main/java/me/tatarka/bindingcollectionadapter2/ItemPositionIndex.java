@@ -0,0 +1,95 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import android.support.annotation.Nullable;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Finds the position of an item instance in a list without scanning it every time. Positions are
+ * indexed lazily from the start of the list, and a structural change only drops the index from
+ * the first position it affects. Like a scan, it returns the first position of an item that's in
+ * the list more than once.
+ */
+class ItemPositionIndex {
+    private final IdentityHashMap<Object, Integer> positions = new IdentityHashMap<>();
+    @Nullable
+    private List<?> items;
+    // Positions before this are indexed.
+    private int indexedCount;
+
+    void setItems(@Nullable List<?> items) {
+        this.items = items;
+        invalidateAll();
+    }
+
+    /**
+     * Returns the first position of the given item instance, or -1 if it's not in the list.
+     */
+    int indexOf(Object item) {
+        if (items == null) {
+            return -1;
+        }
+        Integer position = positions.get(item);
+        if (position != null && position < indexedCount) {
+            if (isAt(item, position)) {
+                return position;
+            }
+            // The item was replaced there by a change, it may still be at a later indexed position.
+            positions.remove(item);
+            indexedCount = position + 1;
+        }
+        if (positions.size() > 2 * items.size() + 16) {
+            // Mostly removed items, start over.
+            invalidateAll();
+        }
+        int size = items.size();
+        while (indexedCount < size) {
+            int i = indexedCount++;
+            Object indexedItem = items.get(i);
+            index(indexedItem, i);
+            if (indexedItem == item) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Updates the index for the items in the given range being replaced. The replaced items are
+     * looked up again from where they were on the next {@link #indexOf(Object)}.
+     */
+    void onItemRangeChanged(int positionStart, int itemCount) {
+        if (items == null) {
+            return;
+        }
+        int end = Math.min(positionStart + itemCount, indexedCount);
+        for (int i = positionStart; i < end; i++) {
+            index(items.get(i), i);
+        }
+    }
+
+    /**
+     * Drops the index from the given position on, for items inserted, removed or moved there.
+     */
+    void invalidateFrom(int positionStart) {
+        indexedCount = Math.max(0, Math.min(indexedCount, positionStart));
+    }
+
+    void invalidateAll() {
+        positions.clear();
+        indexedCount = 0;
+    }
+
+    private void index(Object item, int position) {
+        Integer existing = positions.get(item);
+        // Keep an earlier position of the same item, but not a stale one.
+        if (existing == null || existing >= position || !isAt(item, existing)) {
+            positions.put(item, position);
+        }
+    }
+
+    private boolean isAt(Object item, int position) {
+        return position < items.size() && items.get(position) == item;
+    }
+}
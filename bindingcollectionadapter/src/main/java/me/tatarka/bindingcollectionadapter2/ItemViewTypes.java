@@ -0,0 +1,72 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import android.support.annotation.LayoutRes;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A process wide registry of compact view types. Each combination of layout and variable id gets
+ * its own view type, handed out in order starting at 1, which stays the same for as long as the
+ * process lives. Since the view type only depends on how an item is bound, views can be reused
+ * between adapters, for example through a shared {@link android.support.v7.widget.RecyclerView.RecycledViewPool}.
+ */
+public final class ItemViewTypes {
+    private static final HashMap<Long, Integer> viewTypes = new HashMap<>();
+    // Index is the view type.
+    private static int[] layouts = new int[16];
+    private static int[] variableIds = new int[16];
+    private static int nextViewType = 1;
+
+    private ItemViewTypes() {
+    }
+
+    /**
+     * Returns the view type for the given layout and variable id, registering it if it's new.
+     */
+    public static synchronized int viewTypeOf(@LayoutRes int layoutRes, int variableId) {
+        Long key = ((long) layoutRes << 32) | (variableId & 0xFFFFFFFFL);
+        Integer viewType = viewTypes.get(key);
+        if (viewType != null) {
+            return viewType;
+        }
+        int newViewType = nextViewType++;
+        if (newViewType >= layouts.length) {
+            layouts = Arrays.copyOf(layouts, layouts.length * 2);
+            variableIds = Arrays.copyOf(variableIds, variableIds.length * 2);
+        }
+        layouts[newViewType] = layoutRes;
+        variableIds[newViewType] = variableId;
+        viewTypes.put(key, newViewType);
+        return newViewType;
+    }
+
+    /**
+     * Returns the layout of the given view type.
+     *
+     * @throws IllegalArgumentException if the view type wasn't returned by {@link
+     *                                  #viewTypeOf(int, int)}.
+     */
+    @LayoutRes
+    public static synchronized int layoutResOf(int viewType) {
+        checkViewType(viewType);
+        return layouts[viewType];
+    }
+
+    /**
+     * Returns the variable id of the given view type.
+     *
+     * @throws IllegalArgumentException if the view type wasn't returned by {@link
+     *                                  #viewTypeOf(int, int)}.
+     */
+    public static synchronized int variableIdOf(int viewType) {
+        checkViewType(viewType);
+        return variableIds[viewType];
+    }
+
+    private static void checkViewType(int viewType) {
+        if (viewType <= 0 || viewType >= nextViewType) {
+            throw new IllegalArgumentException("Unknown view type: " + viewType);
+        }
+    }
+}
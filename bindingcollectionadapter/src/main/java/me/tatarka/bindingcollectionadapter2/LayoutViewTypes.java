@@ -0,0 +1,84 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import android.support.annotation.LayoutRes;
+
+/**
+ * Hands out view types for layouts in the order they're first seen, up to a fixed count. Layouts
+ * are kept in a small open-addressed hash table, so a lookup is O(1) instead of a binary search,
+ * and the last lookup is remembered since neighboring items commonly share a layout.
+ */
+class LayoutViewTypes {
+    // Layout 0 is never a valid resource, so it marks an empty slot.
+    private static final int EMPTY = 0;
+
+    private final int[] layouts;
+    // The hash table, each slot holds a layout and its view type.
+    private final int[] keys;
+    private final int[] values;
+    private final int mask;
+    private int size;
+    @LayoutRes
+    private int lastLayoutRes;
+    private int lastViewType;
+
+    LayoutViewTypes(int maxCount) {
+        layouts = new int[maxCount];
+        // At most half full so probes stay short.
+        int capacity = Integer.highestOneBit(Math.max(maxCount, 1)) << 2;
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Returns the view type for the given layout, assigning the next free one the first time a
+     * layout is seen.
+     *
+     * @throws IllegalStateException if there are more layouts than the max count.
+     */
+    int viewTypeOf(@LayoutRes int layoutRes) {
+        if (layoutRes == lastLayoutRes && size > 0) {
+            return lastViewType;
+        }
+        int slot = mix(layoutRes) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != layoutRes) {
+            slot = (slot + 1) & mask;
+        }
+        int viewType;
+        if (keys[slot] == layoutRes) {
+            viewType = values[slot];
+        } else {
+            if (size >= layouts.length) {
+                throw new IllegalStateException("Found more than itemTypeCount (" + layouts.length + ") layouts, increase the itemTypeCount passed to the adapter.");
+            }
+            viewType = size++;
+            keys[slot] = layoutRes;
+            values[slot] = viewType;
+            layouts[viewType] = layoutRes;
+        }
+        lastLayoutRes = layoutRes;
+        lastViewType = viewType;
+        return viewType;
+    }
+
+    /**
+     * Returns the layout of the given view type.
+     */
+    @LayoutRes
+    int layoutOf(int viewType) {
+        return layouts[viewType];
+    }
+
+    /**
+     * Returns the number of view types handed out.
+     */
+    int size() {
+        return size;
+    }
+
+    private static int mix(int value) {
+        // Layout ids of one package only differ in the low bits, spread them out.
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
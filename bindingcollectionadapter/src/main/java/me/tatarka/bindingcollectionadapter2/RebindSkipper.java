@@ -0,0 +1,81 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import android.databinding.ViewDataBinding;
+import android.view.View;
+
+/**
+ * Skips binding an item to a {@link ViewDataBinding} that is already bound to the very same item
+ * instance with the same {@link ResolvedBinding}, and counts how often that happens. What a binding
+ * was last bound to is kept in a view tag.
+ * <p>
+ * This is only correct if items are immutable or notify the binding themselves, for example by
+ * extending {@link android.databinding.BaseObservable}. A change to a plain field of an item that
+ * is then notified with the same item instance won't show.
+ */
+public final class RebindSkipper {
+    private long bindCount;
+    private long skipCount;
+
+    RebindSkipper() {
+    }
+
+    /**
+     * Returns true if the given binding is already bound to the item, the caller can then skip
+     * binding it. Otherwise records that it's now bound to it and returns false.
+     */
+    boolean skip(ViewDataBinding binding, ResolvedBinding resolvedBinding, Object item) {
+        View root = binding.getRoot();
+        Object tag = root.getTag(R.id.bindingcollectionadapter_bound_item);
+        BoundItem boundItem = tag instanceof BoundItem ? (BoundItem) tag : null;
+        if (boundItem != null
+                && boundItem.item == item
+                && boundItem.resolvedBinding == resolvedBinding
+                && !binding.hasPendingBindings()) {
+            skipCount++;
+            return true;
+        }
+        if (boundItem == null) {
+            boundItem = new BoundItem();
+            root.setTag(R.id.bindingcollectionadapter_bound_item, boundItem);
+        }
+        boundItem.item = item;
+        boundItem.resolvedBinding = resolvedBinding;
+        bindCount++;
+        return false;
+    }
+
+    /**
+     * Returns how many times an item was actually bound.
+     */
+    public long bindCount() {
+        return bindCount;
+    }
+
+    /**
+     * Returns how many times binding an item was skipped.
+     */
+    public long skipCount() {
+        return skipCount;
+    }
+
+    /**
+     * Returns the fraction of binds that were skipped, between 0 and 1.
+     */
+    public float skipRatio() {
+        long total = bindCount + skipCount;
+        return total == 0 ? 0f : (float) skipCount / total;
+    }
+
+    /**
+     * Resets the counts to 0.
+     */
+    public void resetCounts() {
+        bindCount = 0;
+        skipCount = 0;
+    }
+
+    private static class BoundItem {
+        Object item;
+        ResolvedBinding resolvedBinding;
+    }
+}
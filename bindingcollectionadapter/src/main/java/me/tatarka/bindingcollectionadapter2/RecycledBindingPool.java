@@ -0,0 +1,82 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import android.databinding.ViewDataBinding;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Holds on to bindings of destroyed pages by layout so that new pages of the same layout can be
+ * rebound instead of inflated.
+ */
+class RecycledBindingPool {
+    private final Map<Integer, ArrayDeque<ViewDataBinding>> bindings = new HashMap<>();
+    private int maxPerLayout;
+
+    RecycledBindingPool(int maxPerLayout) {
+        this.maxPerLayout = maxPerLayout;
+    }
+
+    /**
+     * Sets the most bindings held on to for each layout, dropping any over it.
+     */
+    void setMaxPerLayout(int maxPerLayout) {
+        this.maxPerLayout = maxPerLayout;
+        for (Iterator<ArrayDeque<ViewDataBinding>> it = bindings.values().iterator(); it.hasNext(); ) {
+            ArrayDeque<ViewDataBinding> layoutBindings = it.next();
+            while (layoutBindings.size() > maxPerLayout) {
+                layoutBindings.removeLast();
+            }
+            if (layoutBindings.isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    int getMaxPerLayout() {
+        return maxPerLayout;
+    }
+
+    /**
+     * Returns a recycled binding of the given layout, or null if there isn't one.
+     */
+    @Nullable
+    ViewDataBinding get(@LayoutRes int layoutRes) {
+        ArrayDeque<ViewDataBinding> layoutBindings = bindings.get(layoutRes);
+        return layoutBindings != null ? layoutBindings.pollFirst() : null;
+    }
+
+    /**
+     * Recycles the given binding of the given layout. Returns false if there's no room for it.
+     */
+    boolean put(@LayoutRes int layoutRes, ViewDataBinding binding) {
+        ArrayDeque<ViewDataBinding> layoutBindings = bindings.get(layoutRes);
+        if (layoutBindings == null) {
+            if (maxPerLayout <= 0) {
+                return false;
+            }
+            layoutBindings = new ArrayDeque<>();
+            bindings.put(layoutRes, layoutBindings);
+        } else if (layoutBindings.size() >= maxPerLayout) {
+            return false;
+        }
+        layoutBindings.addFirst(binding);
+        return true;
+    }
+
+    /**
+     * Returns the number of recycled bindings of the given layout.
+     */
+    int size(@LayoutRes int layoutRes) {
+        ArrayDeque<ViewDataBinding> layoutBindings = bindings.get(layoutRes);
+        return layoutBindings != null ? layoutBindings.size() : 0;
+    }
+
+    void clear() {
+        bindings.clear();
+    }
+}
@@ -0,0 +1,172 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import android.databinding.ViewDataBinding;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.Nullable;
+import android.view.View;
+
+import java.util.Arrays;
+
+/**
+ * The variable id, layout and extra bindings an {@link ItemBinding} resolved to for an item. Unlike
+ * an {@code ItemBinding} this is immutable, so it can be created on any thread and shared between
+ * adapters.
+ *
+ * @see ItemBinding#resolve(int, Object)
+ */
+public final class ResolvedBinding {
+    private static final int[] NO_EXTRA_IDS = new int[0];
+    private static final Object[] NO_EXTRA_VALUES = new Object[0];
+
+    private final int variableId;
+    @LayoutRes
+    private final int layoutRes;
+    private final int[] extraIds;
+    private final Object[] extraValues;
+    private final boolean applyExtrasOnce;
+    private final int hashCode;
+    // Lazily looked up in ItemViewTypes, 0 if not yet.
+    private volatile int viewType;
+
+    ResolvedBinding(int variableId, @LayoutRes int layoutRes, @Nullable int[] extraIds, @Nullable Object[] extraValues, boolean applyExtrasOnce) {
+        this.variableId = variableId;
+        this.layoutRes = layoutRes;
+        this.extraIds = extraIds != null ? extraIds : NO_EXTRA_IDS;
+        this.extraValues = extraValues != null ? extraValues : NO_EXTRA_VALUES;
+        this.applyExtrasOnce = applyExtrasOnce;
+        int hashCode = 31 * variableId + layoutRes;
+        hashCode = 31 * hashCode + (applyExtrasOnce ? 1 : 0);
+        hashCode = 31 * hashCode + Arrays.hashCode(this.extraIds);
+        for (Object value : this.extraValues) {
+            hashCode = 31 * hashCode + System.identityHashCode(value);
+        }
+        this.hashCode = hashCode;
+    }
+
+    /**
+     * Returns the variable id.
+     */
+    public int variableId() {
+        return variableId;
+    }
+
+    /**
+     * Returns the layout.
+     */
+    @LayoutRes
+    public int layoutRes() {
+        return layoutRes;
+    }
+
+    /**
+     * Returns the compact view type of the layout and variable id.
+     *
+     * @see ItemViewTypes#viewTypeOf(int, int)
+     */
+    public int viewType() {
+        int viewType = this.viewType;
+        if (viewType == 0) {
+            viewType = ItemViewTypes.viewTypeOf(layoutRes, variableId);
+            this.viewType = viewType;
+        }
+        return viewType;
+    }
+
+    /**
+     * Returns whether extras are only set on a binding that wasn't last bound with the same ones.
+     *
+     * @see ItemBinding#applyExtrasOnce(boolean)
+     */
+    public boolean applyExtrasOnce() {
+        return applyExtrasOnce;
+    }
+
+    /**
+     * Returns the extra binding for the given variable id or null if one isn't present.
+     */
+    @Nullable
+    public Object extraBinding(int variableId) {
+        int index = Arrays.binarySearch(extraIds, variableId);
+        return index >= 0 ? extraValues[index] : null;
+    }
+
+    /**
+     * Binds the item and extra bindings to the given binding. Returns true if anything was bound
+     * and false otherwise.
+     *
+     * @throws IllegalStateException if the variable id isn't present in the layout.
+     */
+    public boolean bind(ViewDataBinding binding, Object item) {
+        return bind(binding, variableId, item);
+    }
+
+    /**
+     * Binds the item as the given variable id, which an adapter's {@code onBindBinding()} may be
+     * called with, and the extra bindings to the given binding.
+     */
+    boolean bind(ViewDataBinding binding, int variableId, Object item) {
+        if (variableId == ItemBinding.VAR_NONE) {
+            return false;
+        }
+        boolean result = binding.setVariable(variableId, item);
+        if (!result) {
+            Utils.throwMissingVariable(binding, variableId, layoutRes);
+        }
+        bindExtras(binding, extraIds, extraValues, applyExtrasOnce);
+        return true;
+    }
+
+    /**
+     * Sets the given extras on the binding. If {@code applyOnce} is true this is skipped when the
+     * binding was last bound with the same extras array, which is remembered in a view tag.
+     * Otherwise the tag is cleared, since these extras may overwrite the remembered ones.
+     */
+    static void bindExtras(ViewDataBinding binding, @Nullable int[] extraIds, @Nullable Object[] extraValues, boolean applyOnce) {
+        if (extraIds == null || extraIds.length == 0) {
+            return;
+        }
+        View root = binding.getRoot();
+        if (applyOnce) {
+            if (root.getTag(R.id.bindingcollectionadapter_extras) == extraValues) {
+                return;
+            }
+            root.setTag(R.id.bindingcollectionadapter_extras, extraValues);
+        } else if (root.getTag(R.id.bindingcollectionadapter_extras) != null) {
+            root.setTag(R.id.bindingcollectionadapter_extras, null);
+        }
+        for (int i = 0; i < extraIds.length; i++) {
+            int variableId = extraIds[i];
+            if (variableId != ItemBinding.VAR_NONE) {
+                binding.setVariable(variableId, extraValues[i]);
+            }
+        }
+    }
+
+    /**
+     * Two resolved bindings are equal if they have the same variable id and layout and bind the
+     * same extra instances the same way.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ResolvedBinding)) return false;
+        ResolvedBinding that = (ResolvedBinding) o;
+        if (variableId != that.variableId || layoutRes != that.layoutRes) return false;
+        if (applyExtrasOnce != that.applyExtrasOnce) return false;
+        if (!Arrays.equals(extraIds, that.extraIds)) return false;
+        for (int i = 0; i < extraValues.length; i++) {
+            if (extraValues[i] != that.extraValues[i]) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return "ResolvedBinding{variableId=" + variableId + ", layoutRes=" + layoutRes + ", extras=" + extraIds.length + "}";
+    }
+}
@@ -0,0 +1,73 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Remembers what an {@link ItemBinding} resolved to for each position, so that {@link
+ * OnItemBind#onItemBind(ItemBinding, int, Object)} runs once per item per data change instead of
+ * every time an adapter asks for a view type or binds a view. Adapters invalidate it from their
+ * change notifications. Since an {@code OnItemBind} may depend on the position, everything after a
+ * structural change is invalidated. A position is also resolved again when it holds a different
+ * item instance than it was resolved for, which covers lists changed without a notification the
+ * adapter sees, and everything is resolved again once the item binding is reconfigured.
+ */
+class ResolvedBindingCache {
+    private ResolvedBinding[] resolvedBindings = new ResolvedBinding[0];
+    // The item each position was resolved for.
+    private Object[] resolvedItems = new Object[0];
+    // The item binding and its version everything was resolved with.
+    private ItemBinding<?> itemBinding;
+    private int itemBindingVersion;
+
+    /**
+     * Returns what the given item binding resolves to for the item at the given position.
+     */
+    <T> ResolvedBinding get(ItemBinding<T> itemBinding, List<T> items, int position) {
+        if (this.itemBinding != itemBinding || itemBindingVersion != itemBinding.version()) {
+            // Reconfigured, like an extra bound after the list was shown.
+            clear();
+            this.itemBinding = itemBinding;
+            itemBindingVersion = itemBinding.version();
+        }
+        if (position >= resolvedBindings.length) {
+            int length = Math.max(items.size(), position + 1);
+            resolvedBindings = Arrays.copyOf(resolvedBindings, length);
+            resolvedItems = Arrays.copyOf(resolvedItems, length);
+        }
+        T item = items.get(position);
+        ResolvedBinding resolvedBinding = resolvedBindings[position];
+        if (resolvedBinding == null || resolvedItems[position] != item) {
+            resolvedBinding = itemBinding.resolve(position, item);
+            resolvedBindings[position] = resolvedBinding;
+            resolvedItems[position] = item;
+        }
+        return resolvedBinding;
+    }
+
+    /**
+     * Invalidates the given range of positions.
+     */
+    void invalidate(int positionStart, int itemCount) {
+        int end = Math.min(positionStart + itemCount, resolvedBindings.length);
+        if (positionStart < end) {
+            Arrays.fill(resolvedBindings, positionStart, end, null);
+            Arrays.fill(resolvedItems, positionStart, end, null);
+        }
+    }
+
+    /**
+     * Invalidates all positions starting at the given one.
+     */
+    void invalidateFrom(int positionStart) {
+        invalidate(positionStart, resolvedBindings.length);
+    }
+
+    /**
+     * Invalidates all positions.
+     */
+    void clear() {
+        Arrays.fill(resolvedBindings, null);
+        Arrays.fill(resolvedItems, null);
+    }
+}
@@ -6,6 +6,8 @@ import android.databinding.DataBindingUtil;
 import android.databinding.ViewDataBinding;
 import android.os.Looper;
 import android.support.annotation.LayoutRes;
+import android.widget.Adapter;
+import android.widget.WrapperListAdapter;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
@@ -40,6 +42,16 @@ class Utils {
         }
     }
 
+    /**
+     * Unwraps any {@link android.widget.WrapperListAdapter}, commonly {@link
+     * android.widget.HeaderViewListAdapter}.
+     */
+    static Adapter unwrapAdapter(Adapter adapter) {
+        return adapter instanceof WrapperListAdapter
+                ? unwrapAdapter(((WrapperListAdapter) adapter).getWrappedAdapter())
+                : adapter;
+    }
+
     /**
      * Constructs a binding adapter class from it's class name using reflection.
      */
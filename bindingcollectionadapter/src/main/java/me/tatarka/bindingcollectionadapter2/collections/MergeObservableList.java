@@ -1,12 +1,14 @@
 package me.tatarka.bindingcollectionadapter2.collections;
 
-import android.databinding.ListChangeRegistry;
 import android.databinding.ObservableList;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 
 /**
@@ -18,8 +20,12 @@ import java.util.List;
  */
 public class MergeObservableList<T> extends AbstractList<T> implements ObservableList<T> {
     private final ArrayList<List<? extends T>> lists = new ArrayList<>();
+    // Running sizes of each backing list, kept in sync by the callbacks below.
+    private final SegmentOffsets offsets = new SegmentOffsets();
+    // Index into lists of each backing ObservableList, by identity, so callbacks don't have to scan.
+    private final IdentityHashMap<List<?>, Integer> listIndexes = new IdentityHashMap<>();
     private final ListChangeCallback callback = new ListChangeCallback();
-    private final ListChangeRegistry listeners = new ListChangeRegistry();
+    private final PayloadListChangeRegistry listeners = new PayloadListChangeRegistry();
 
     @Override
     public void addOnListChangedCallback(OnListChangedCallback<? extends ObservableList<T>> listener) {
@@ -36,6 +42,7 @@ public class MergeObservableList<T> extends AbstractList<T> implements Observabl
      */
     public MergeObservableList<T> insertItem(T object) {
         lists.add(Collections.singletonList(object));
+        offsets.append(1);
         modCount += 1;
         listeners.notifyInserted(this, size() - 1, 1);
         return this;
@@ -44,12 +51,19 @@ public class MergeObservableList<T> extends AbstractList<T> implements Observabl
     /**
      * Inserts the given {@link ObservableList} into the merge list. Any changes in the given list
      * will be reflected and propagated here.
+     *
+     * @throws IllegalArgumentException if the given list was already inserted.
      */
     @SuppressWarnings("unchecked")
     public MergeObservableList<T> insertList(@NonNull ObservableList<? extends T> list) {
+        if (listIndexes.containsKey(list)) {
+            throw new IllegalArgumentException("list was already inserted into this merge list");
+        }
         list.addOnListChangedCallback(callback);
         int oldSize = size();
         lists.add(list);
+        offsets.append(list.size());
+        listIndexes.put(list, lists.size() - 1);
         modCount += 1;
         if (!list.isEmpty()) {
             listeners.notifyInserted(this, oldSize, list.size());
@@ -61,19 +75,20 @@ public class MergeObservableList<T> extends AbstractList<T> implements Observabl
      * Removes the given item from the merge list.
      */
     public boolean removeItem(T object) {
-        int size = 0;
         for (int i = 0, listsSize = lists.size(); i < listsSize; i++) {
             List<? extends T> list = lists.get(i);
             if (!(list instanceof ObservableList)) {
                 Object item = list.get(0);
                 if ((object == null) ? (item == null) : object.equals(item)) {
+                    int offset = offsets.offsetOf(i);
                     lists.remove(i);
+                    offsets.remove(i);
+                    reindexListsFrom(i);
                     modCount += 1;
-                    listeners.notifyRemoved(this, size, 1);
+                    listeners.notifyRemoved(this, offset, 1);
                     return true;
                 }
             }
-            size += list.size();
         }
         return false;
     }
@@ -83,19 +98,20 @@ public class MergeObservableList<T> extends AbstractList<T> implements Observabl
      */
     @SuppressWarnings("unchecked")
     public boolean removeList(ObservableList<? extends T> listToRemove) {
-        int size = 0;
-        for (int i = 0, listsSize = lists.size(); i < listsSize; i++) {
-            List<? extends T> list = lists.get(i);
-            if (list == listToRemove) {
-                listToRemove.removeOnListChangedCallback(callback);
-                lists.remove(i);
-                modCount += 1;
-                listeners.notifyRemoved(this, size, list.size());
-                return true;
-            }
-            size += list.size();
+        int index = indexOfList(listToRemove);
+        if (index < 0) {
+            return false;
         }
-        return false;
+        int offset = offsets.offsetOf(index);
+        int size = offsets.sizeOf(index);
+        listToRemove.removeOnListChangedCallback(callback);
+        lists.remove(index);
+        offsets.remove(index);
+        listIndexes.remove(listToRemove);
+        reindexListsFrom(index);
+        modCount += 1;
+        listeners.notifyRemoved(this, offset, size);
+        return true;
     }
 
     /**
@@ -113,6 +129,8 @@ public class MergeObservableList<T> extends AbstractList<T> implements Observabl
             }
         }
         lists.clear();
+        offsets.clear();
+        listIndexes.clear();
         modCount += 1;
         listeners.notifyRemoved(this, 0, size);
     }
@@ -127,19 +145,15 @@ public class MergeObservableList<T> extends AbstractList<T> implements Observabl
         if (index < 0) {
             throw new IndexOutOfBoundsException();
         }
-        int size = 0;
-        for (int i = 0, listsSize = lists.size(); i < listsSize; i++) {
-            List<? extends T> list = lists.get(i);
-            if (backingList == list) {
-                if (index < list.size()) {
-                    return size + index;
-                } else {
-                    throw new IndexOutOfBoundsException();
-                }
-            }
-            size += list.size();
+        int listIndex = indexOfList(backingList);
+        if (listIndex < 0) {
+            throw new IllegalArgumentException();
+        }
+        if (index < offsets.sizeOf(listIndex)) {
+            return offsets.offsetOf(listIndex) + index;
+        } else {
+            throw new IndexOutOfBoundsException();
         }
-        throw new IllegalArgumentException();
     }
 
     /**
@@ -152,107 +166,192 @@ public class MergeObservableList<T> extends AbstractList<T> implements Observabl
         if (index < 0) {
             throw new IndexOutOfBoundsException();
         }
-        int size = 0;
-        for (int i = 0, listsSize = lists.size(); i < listsSize; i++) {
-            List<? extends T> list = lists.get(i);
-            if (backingList == list) {
-                if (index - size < list.size()) {
-                    return index - size;
-                } else {
-                    throw new IndexOutOfBoundsException();
-                }
-            }
-            size += list.size();
+        int listIndex = indexOfList(backingList);
+        if (listIndex < 0) {
+            throw new IllegalArgumentException();
+        }
+        int offset = offsets.offsetOf(listIndex);
+        if (index - offset < offsets.sizeOf(listIndex)) {
+            return index - offset;
+        } else {
+            throw new IndexOutOfBoundsException();
         }
-        throw new IllegalArgumentException();
     }
 
     @Override
     public T get(int location) {
-        if (location < 0) {
+        if (location < 0 || location >= offsets.total()) {
             throw new IndexOutOfBoundsException();
         }
-        int size = 0;
-        for (int i = 0, listsSize = lists.size(); i < listsSize; i++) {
-            List<? extends T> list = lists.get(i);
-            if (location - size < list.size()) {
-                return list.get(location - size);
-            }
-            size += list.size();
-        }
-        throw new IndexOutOfBoundsException();
+        int listIndex = offsets.indexAt(location);
+        return lists.get(listIndex).get(location - offsets.offsetOf(listIndex));
     }
 
     @Override
     public int size() {
-        int size = 0;
-        for (int i = 0, listsSize = lists.size(); i < listsSize; i++) {
+        return offsets.total();
+    }
+
+    private int indexOfList(List<?> list) {
+        Integer index = listIndexes.get(list);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Updates the index of backing lists after the list at the given index was removed and the
+     * following ones shifted down by one. Only the following lists are visited, so removing one
+     * near the end is cheap.
+     */
+    private void reindexListsFrom(int index) {
+        for (int i = index, listsSize = lists.size(); i < listsSize; i++) {
             List<? extends T> list = lists.get(i);
-            size += list.size();
+            if (list instanceof ObservableList) {
+                listIndexes.put(list, i);
+            }
         }
-        return size;
     }
 
-    class ListChangeCallback extends OnListChangedCallback {
+    class ListChangeCallback extends OnListChangedCallback implements PayloadOnListChangedCallback {
 
         @Override
         public void onChanged(ObservableList sender) {
+            int index = indexOfList(sender);
+            if (index >= 0) {
+                offsets.add(index, sender.size() - offsets.sizeOf(index));
+            }
             modCount += 1;
             listeners.notifyChanged(MergeObservableList.this);
         }
 
         @Override
         public void onItemRangeChanged(ObservableList sender, int positionStart, int itemCount) {
-            int size = 0;
-            for (int i = 0, listsSize = lists.size(); i < listsSize; i++) {
-                List list = lists.get(i);
-                if (list == sender) {
-                    listeners.notifyChanged(MergeObservableList.this, size + positionStart, itemCount);
-                    return;
-                }
-                size += list.size();
+            onItemRangeChanged(sender, positionStart, itemCount, null);
+        }
+
+        @Override
+        public void onItemRangeChanged(ObservableList sender, int positionStart, int itemCount, @Nullable Object payload) {
+            int index = indexOfList(sender);
+            if (index >= 0) {
+                listeners.notifyChanged(MergeObservableList.this, offsets.offsetOf(index) + positionStart, itemCount, payload);
             }
         }
 
         @Override
         public void onItemRangeInserted(ObservableList sender, int positionStart, int itemCount) {
             modCount += 1;
-            int size = 0;
-            for (int i = 0, listsSize = lists.size(); i < listsSize; i++) {
-                List list = lists.get(i);
-                if (list == sender) {
-                    listeners.notifyInserted(MergeObservableList.this, size + positionStart, itemCount);
-                    return;
-                }
-                size += list.size();
+            int index = indexOfList(sender);
+            if (index >= 0) {
+                offsets.add(index, itemCount);
+                listeners.notifyInserted(MergeObservableList.this, offsets.offsetOf(index) + positionStart, itemCount);
             }
         }
 
         @Override
         public void onItemRangeMoved(ObservableList sender, int fromPosition, int toPosition, int itemCount) {
-            int size = 0;
-            for (int i = 0, listsSize = lists.size(); i < listsSize; i++) {
-                List list = lists.get(i);
-                if (list == sender) {
-                    listeners.notifyMoved(MergeObservableList.this, size + fromPosition, size + toPosition, itemCount);
-                    return;
-                }
-                size += list.size();
+            int index = indexOfList(sender);
+            if (index >= 0) {
+                int offset = offsets.offsetOf(index);
+                listeners.notifyMoved(MergeObservableList.this, offset + fromPosition, offset + toPosition, itemCount);
             }
         }
 
         @Override
         public void onItemRangeRemoved(ObservableList sender, int positionStart, int itemCount) {
             modCount += 1;
-            int size = 0;
-            for (int i = 0, listsSize = lists.size(); i < listsSize; i++) {
-                List list = lists.get(i);
-                if (list == sender) {
-                    listeners.notifyRemoved(MergeObservableList.this, size + positionStart, itemCount);
-                    return;
+            int index = indexOfList(sender);
+            if (index >= 0) {
+                offsets.add(index, -itemCount);
+                listeners.notifyRemoved(MergeObservableList.this, offsets.offsetOf(index) + positionStart, itemCount);
+            }
+        }
+    }
+
+    /**
+     * A Fenwick tree over the sizes of the backing lists. Lookups of a list's offset and of the
+     * list containing a merged index are O(log n) in the number of backing lists. Appending a list
+     * is O(log n), removing one re-appends the lists after it in O(k log n) for k following lists.
+     */
+    static final class SegmentOffsets {
+        // 1-indexed, tree[i] holds the sum of the sizes in (i - lowbit(i), i].
+        private int[] tree = new int[9];
+        private int count;
+        private int total;
+
+        int total() {
+            return total;
+        }
+
+        void append(int size) {
+            if (count + 1 >= tree.length) {
+                tree = Arrays.copyOf(tree, tree.length * 2);
+            }
+            int i = ++count;
+            int lower = i - (i & -i);
+            int value = size;
+            for (int j = i - 1; j > lower; j -= j & -j) {
+                value += tree[j];
+            }
+            tree[i] = value;
+            total += size;
+        }
+
+        void add(int index, int delta) {
+            for (int i = index + 1; i <= count; i += i & -i) {
+                tree[i] += delta;
+            }
+            total += delta;
+        }
+
+        void remove(int index) {
+            int[] sizes = new int[count - index - 1];
+            for (int i = 0; i < sizes.length; i++) {
+                sizes[i] = sizeOf(index + 1 + i);
+            }
+            int removedTotal = total - offsetOf(index);
+            // Entries before index only cover lists before it, so they stay valid.
+            Arrays.fill(tree, index + 1, count + 1, 0);
+            count = index;
+            total -= removedTotal;
+            for (int size : sizes) {
+                append(size);
+            }
+        }
+
+        void clear() {
+            Arrays.fill(tree, 0);
+            count = 0;
+            total = 0;
+        }
+
+        /**
+         * Returns the sum of the sizes of all lists before the given index.
+         */
+        int offsetOf(int index) {
+            int sum = 0;
+            for (int i = index; i > 0; i -= i & -i) {
+                sum += tree[i];
+            }
+            return sum;
+        }
+
+        int sizeOf(int index) {
+            return offsetOf(index + 1) - offsetOf(index);
+        }
+
+        /**
+         * Returns the index of the list containing the given merged position, which must be in
+         * {@code [0, total())}.
+         */
+        int indexAt(int position) {
+            int index = 0;
+            for (int bit = Integer.highestOneBit(count); bit != 0; bit >>= 1) {
+                int next = index + bit;
+                if (next <= count && tree[next] <= position) {
+                    index = next;
+                    position -= tree[next];
                 }
-                size += list.size();
             }
+            return index;
         }
     }
 }
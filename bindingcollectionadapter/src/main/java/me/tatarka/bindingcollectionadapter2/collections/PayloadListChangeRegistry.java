@@ -0,0 +1,111 @@
+package me.tatarka.bindingcollectionadapter2.collections;
+
+import android.databinding.CallbackRegistry;
+import android.databinding.ListChangeRegistry;
+import android.databinding.ObservableList;
+import android.support.annotation.Nullable;
+
+/**
+ * A drop-in replacement for {@link ListChangeRegistry} that can also notify item range changes
+ * with a payload. Callbacks implementing {@link PayloadOnListChangedCallback} get the payload, all
+ * others are notified as usual.
+ */
+public class PayloadListChangeRegistry extends CallbackRegistry<ObservableList.OnListChangedCallback, ObservableList, PayloadListChangeRegistry.ListChanges> {
+    private static final int ALL = 0;
+    private static final int CHANGED = 1;
+    private static final int INSERTED = 2;
+    private static final int MOVED = 3;
+    private static final int REMOVED = 4;
+
+    private static final NotifierCallback<ObservableList.OnListChangedCallback, ObservableList, ListChanges> NOTIFIER_CALLBACK = new NotifierCallback<ObservableList.OnListChangedCallback, ObservableList, ListChanges>() {
+        @SuppressWarnings("unchecked")
+        @Override
+        public void onNotificationCallback(ObservableList.OnListChangedCallback callback, ObservableList sender, int notificationType, ListChanges listChanges) {
+            switch (notificationType) {
+                case CHANGED:
+                    if (listChanges.payload != null && callback instanceof PayloadOnListChangedCallback) {
+                        ((PayloadOnListChangedCallback) callback).onItemRangeChanged(sender, listChanges.start, listChanges.count, listChanges.payload);
+                    } else {
+                        callback.onItemRangeChanged(sender, listChanges.start, listChanges.count);
+                    }
+                    break;
+                case INSERTED:
+                    callback.onItemRangeInserted(sender, listChanges.start, listChanges.count);
+                    break;
+                case MOVED:
+                    callback.onItemRangeMoved(sender, listChanges.start, listChanges.to, listChanges.count);
+                    break;
+                case REMOVED:
+                    callback.onItemRangeRemoved(sender, listChanges.start, listChanges.count);
+                    break;
+                default:
+                    callback.onChanged(sender);
+                    break;
+            }
+        }
+    };
+
+    public PayloadListChangeRegistry() {
+        super(NOTIFIER_CALLBACK);
+    }
+
+    /**
+     * Notify registered callbacks that there was an unknown or whole-list change.
+     */
+    public void notifyChanged(ObservableList list) {
+        notifyCallbacks(list, ALL, null);
+    }
+
+    /**
+     * Notify registered callbacks that some elements have changed.
+     */
+    public void notifyChanged(ObservableList list, int start, int count) {
+        notifyChanged(list, start, count, null);
+    }
+
+    /**
+     * Notify registered callbacks that some elements have changed, passing the given payload to
+     * the ones that implement {@link PayloadOnListChangedCallback}.
+     */
+    public void notifyChanged(ObservableList list, int start, int count, @Nullable Object payload) {
+        notifyCallbacks(list, CHANGED, new ListChanges(start, 0, count, payload));
+    }
+
+    /**
+     * Notify registered callbacks that elements were inserted.
+     */
+    public void notifyInserted(ObservableList list, int start, int count) {
+        notifyCallbacks(list, INSERTED, new ListChanges(start, 0, count, null));
+    }
+
+    /**
+     * Notify registered callbacks that elements were moved.
+     */
+    public void notifyMoved(ObservableList list, int from, int to, int count) {
+        notifyCallbacks(list, MOVED, new ListChanges(from, to, count, null));
+    }
+
+    /**
+     * Notify registered callbacks that elements were deleted.
+     */
+    public void notifyRemoved(ObservableList list, int start, int count) {
+        notifyCallbacks(list, REMOVED, new ListChanges(start, 0, count, null));
+    }
+
+    /**
+     * The arguments of a single change notification.
+     */
+    public static class ListChanges {
+        final int start;
+        final int to;
+        final int count;
+        final Object payload;
+
+        ListChanges(int start, int to, int count, Object payload) {
+            this.start = start;
+            this.to = to;
+            this.count = count;
+            this.payload = payload;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package me.tatarka.bindingcollectionadapter2.collections;
+
+import android.databinding.ObservableList;
+import android.support.annotation.Nullable;
+
+/**
+ * Implement this interface on an {@link ObservableList.OnListChangedCallback} to receive the
+ * payload of item range changes from lists that provide one, like {@link MergeObservableList} or
+ * {@code DiffObservableList}. For these changes it is called instead of {@link
+ * ObservableList.OnListChangedCallback#onItemRangeChanged(ObservableList, int, int)}.
+ *
+ * @see PayloadListChangeRegistry
+ */
+public interface PayloadOnListChangedCallback {
+    /**
+     * Called whenever one or more items in the list have changed.
+     *
+     * @param sender        The changing list.
+     * @param positionStart The starting index that has changed.
+     * @param itemCount     The number of items that have changed.
+     * @param payload       The optional payload describing the change, may be null.
+     */
+    void onItemRangeChanged(ObservableList sender, int positionStart, int itemCount, @Nullable Object payload);
+}
@@ -0,0 +1,39 @@
+package me.tatarka.bindingcollectionadapter2.itembindings;
+
+import android.support.annotation.LayoutRes;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the variable id and layout items of the annotated type are bound with. With the {@code
+ * bindingcollectionadapter-compiler} annotation processor this generates an {@code ItemLayouts}
+ * class with an {@link me.tatarka.bindingcollectionadapter2.OnItemBind} that picks the binding
+ * for all annotated types without reflection, and the number of distinct layouts.
+ * <pre>{@code
+ * @ItemLayout(variable = BR.item, layout = R.layout.item)
+ * public class Item { ... }
+ *
+ * ItemBinding<Object> itemBinding = ItemLayouts.itemBinding();
+ * }</pre>
+ * If an item is an instance of several annotated types the most specific one is used. Since
+ * annotation values have to be constants, this only works in an application module where the
+ * {@code BR} and {@code R} fields are final.
+ *
+ * @see OnItemBindClass
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface ItemLayout {
+    /**
+     * The variable id the item is bound to, or {@link me.tatarka.bindingcollectionadapter2.ItemBinding#VAR_NONE}.
+     */
+    int variable();
+
+    /**
+     * The layout the item is bound with.
+     */
+    @LayoutRes int layout();
+}
@@ -5,8 +5,8 @@ import android.support.annotation.NonNull;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
-import me.tatarka.bindingcollectionadapter2.BindingListViewAdapter;
 import me.tatarka.bindingcollectionadapter2.ItemBinding;
 import me.tatarka.bindingcollectionadapter2.OnItemBind;
 
@@ -22,10 +22,14 @@ public class OnItemBindClass<T> implements OnItemBind<T> {
 
     private final List<Class<? extends T>> itemBindingClassList;
     private final List<OnItemBind<? extends T>> itemBindingList;
+    // The resolved OnItemBind for each concrete item class seen so far, cleared by map(). Concurrent
+    // since ItemBinding.resolve() may be called from any thread.
+    private final ConcurrentHashMap<Class<?>, OnItemBind<? extends T>> resolvedItemBindings;
 
     public OnItemBindClass() {
         this.itemBindingClassList = new ArrayList<>(2);
         this.itemBindingList = new ArrayList<>(2);
+        this.resolvedItemBindings = new ConcurrentHashMap<>();
     }
 
     /**
@@ -39,6 +43,7 @@ public class OnItemBindClass<T> implements OnItemBind<T> {
             itemBindingClassList.add(itemClass);
             itemBindingList.add(itemBind(variableId, layoutRes));
         }
+        resolvedItemBindings.clear();
         return this;
     }
 
@@ -53,13 +58,14 @@ public class OnItemBindClass<T> implements OnItemBind<T> {
             itemBindingClassList.add(itemClass);
             itemBindingList.add(onItemBind);
         }
+        resolvedItemBindings.clear();
         return this;
     }
 
     /**
      * Returns the number of item types in the map. This is useful for {@link
-     * BindingListViewAdapter#BindingListViewAdapter(int)} or {@code app:itemTypeCount} in an {@code
-     * AdapterView}.
+     * me.tatarka.bindingcollectionadapter2.BindingListViewAdapter#BindingListViewAdapter(int)} or
+     * {@code app:itemTypeCount} in an {@code AdapterView}.
      */
     public int itemTypeCount() {
         return itemBindingClassList.size();
@@ -68,12 +74,21 @@ public class OnItemBindClass<T> implements OnItemBind<T> {
     @SuppressWarnings("unchecked")
     @Override
     public void onItemBind(ItemBinding itemBinding, int position, T item) {
+        OnItemBind itemBind = item != null ? resolvedItemBindings.get(item.getClass()) : null;
+        if (itemBind == null) {
+            itemBind = resolve(item);
+            if (item != null) {
+                resolvedItemBindings.put(item.getClass(), itemBind);
+            }
+        }
+        itemBind.onItemBind(itemBinding, position, item);
+    }
+
+    private OnItemBind<? extends T> resolve(T item) {
         for (int i = 0; i < itemBindingClassList.size(); i++) {
             Class<? extends T> key = itemBindingClassList.get(i);
             if (key.isInstance(item)) {
-                OnItemBind itemBind = itemBindingList.get(i);
-                itemBind.onItemBind(itemBinding, position, item);
-                return;
+                return itemBindingList.get(i);
             }
         }
         throw new IllegalArgumentException("Missing class for item " + item);
@@ -0,0 +1,96 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class BindingMetricsTest {
+
+    @Test
+    public void recordsByPhaseAndLayout() {
+        BindingMetrics metrics = new BindingMetrics();
+        metrics.record(BindingMetrics.Phase.INFLATE, 1, metrics.startTime());
+        metrics.record(BindingMetrics.Phase.BIND, 1, metrics.startTime());
+        metrics.record(BindingMetrics.Phase.BIND, 2, metrics.startTime());
+        metrics.record(BindingMetrics.Phase.BIND, 1, metrics.startTime());
+
+        BindingMetrics.Snapshot snapshot = metrics.snapshot();
+
+        assertThat(snapshot.layouts()).containsExactly(1, 2);
+        assertThat(snapshot.histogram(BindingMetrics.Phase.INFLATE, 1).count()).isEqualTo(1);
+        assertThat(snapshot.histogram(BindingMetrics.Phase.BIND, 1).count()).isEqualTo(2);
+        assertThat(snapshot.histogram(BindingMetrics.Phase.EXECUTE_PENDING_BINDINGS, 2).count()).isEqualTo(0);
+        assertThat(snapshot.histogram(BindingMetrics.Phase.BIND).count()).isEqualTo(3);
+        assertThat(snapshot.histogram(BindingMetrics.Phase.BIND, 3)).isNull();
+    }
+
+    @Test
+    public void countsNotifications() {
+        BindingMetrics metrics = new BindingMetrics();
+        metrics.recordNotification(BindingMetrics.Notification.ITEM_RANGE_CHANGED);
+        metrics.recordNotification(BindingMetrics.Notification.ITEM_RANGE_CHANGED);
+        metrics.recordNotification(BindingMetrics.Notification.CHANGED);
+
+        BindingMetrics.Snapshot snapshot = metrics.snapshot();
+
+        assertThat(snapshot.notificationCount(BindingMetrics.Notification.ITEM_RANGE_CHANGED)).isEqualTo(2);
+        assertThat(snapshot.notificationCount(BindingMetrics.Notification.CHANGED)).isEqualTo(1);
+        assertThat(snapshot.notificationCount(BindingMetrics.Notification.ITEM_RANGE_REMOVED)).isEqualTo(0);
+    }
+
+    @Test
+    public void snapshotIsNotAffectedByLaterRecords() {
+        BindingMetrics metrics = new BindingMetrics();
+        metrics.record(BindingMetrics.Phase.BIND, 1, metrics.startTime());
+        BindingMetrics.Snapshot snapshot = metrics.snapshot();
+
+        metrics.record(BindingMetrics.Phase.BIND, 1, metrics.startTime());
+        metrics.recordNotification(BindingMetrics.Notification.CHANGED);
+
+        assertThat(snapshot.histogram(BindingMetrics.Phase.BIND, 1).count()).isEqualTo(1);
+        assertThat(snapshot.notificationCount(BindingMetrics.Notification.CHANGED)).isEqualTo(0);
+    }
+
+    @Test
+    public void reportSendsSnapshotAndResets() {
+        BindingMetrics metrics = new BindingMetrics();
+        final List<BindingMetrics.Snapshot> reports = new ArrayList<>();
+        metrics.addListener(new BindingMetrics.Listener() {
+            @Override
+            public void onReport(BindingMetrics metrics, BindingMetrics.Snapshot snapshot) {
+                reports.add(snapshot);
+            }
+        });
+        metrics.record(BindingMetrics.Phase.BIND, 1, metrics.startTime());
+
+        metrics.report();
+
+        assertThat(reports).hasSize(1);
+        assertThat(reports.get(0).histogram(BindingMetrics.Phase.BIND, 1).count()).isEqualTo(1);
+        assertThat(metrics.snapshot().layouts()).isEmpty();
+    }
+
+    @Test
+    public void reportsAfterInterval() throws InterruptedException {
+        BindingMetrics metrics = new BindingMetrics();
+        final List<BindingMetrics.Snapshot> reports = new ArrayList<>();
+        metrics.addListener(new BindingMetrics.Listener() {
+            @Override
+            public void onReport(BindingMetrics metrics, BindingMetrics.Snapshot snapshot) {
+                reports.add(snapshot);
+            }
+        });
+        metrics.setReportInterval(1);
+
+        Thread.sleep(5);
+        metrics.record(BindingMetrics.Phase.BIND, 1, metrics.startTime());
+
+        assertThat(reports).hasSize(1);
+    }
+}
@@ -0,0 +1,61 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class DurationHistogramTest {
+
+    @Test
+    public void bucketsArePowersOfTwo() {
+        assertThat(DurationHistogram.bucketOf(0)).isEqualTo(0);
+        assertThat(DurationHistogram.bucketOf(1)).isEqualTo(1);
+        assertThat(DurationHistogram.bucketOf(2)).isEqualTo(2);
+        assertThat(DurationHistogram.bucketOf(3)).isEqualTo(2);
+        assertThat(DurationHistogram.bucketOf(4)).isEqualTo(3);
+        assertThat(DurationHistogram.bucketOf(Long.MAX_VALUE)).isEqualTo(DurationHistogram.BUCKET_COUNT - 1);
+        assertThat(DurationHistogram.bucketUpperBoundNanos(2)).isEqualTo(3);
+        assertThat(DurationHistogram.bucketUpperBoundNanos(DurationHistogram.BUCKET_COUNT - 1)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void recordsCountTotalAndMax() {
+        DurationHistogram histogram = new DurationHistogram();
+        histogram.record(10);
+        histogram.record(30);
+        histogram.record(-5);
+
+        assertThat(histogram.count()).isEqualTo(3);
+        assertThat(histogram.totalNanos()).isEqualTo(40);
+        assertThat(histogram.maxNanos()).isEqualTo(30);
+        assertThat(histogram.meanNanos()).isEqualTo(13);
+        assertThat(histogram.countInBucket(0)).isEqualTo(1);
+    }
+
+    @Test
+    public void percentileIsBucketUpperBound() {
+        DurationHistogram histogram = new DurationHistogram();
+        for (int i = 0; i < 9; i++) {
+            histogram.record(100);
+        }
+        histogram.record(5000);
+
+        assertThat(histogram.percentileNanos(50)).isEqualTo(127);
+        assertThat(histogram.percentileNanos(90)).isEqualTo(127);
+        assertThat(histogram.percentileNanos(100)).isEqualTo(5000);
+        assertThat(new DurationHistogram().percentileNanos(50)).isEqualTo(0);
+    }
+
+    @Test
+    public void copyIsIndependent() {
+        DurationHistogram histogram = new DurationHistogram();
+        histogram.record(10);
+        DurationHistogram copy = histogram.copy();
+        histogram.record(10);
+
+        assertThat(copy.count()).isEqualTo(1);
+    }
+}
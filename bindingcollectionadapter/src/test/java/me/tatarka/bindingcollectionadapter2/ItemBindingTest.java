@@ -0,0 +1,126 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import me.tatarka.bindingcollectionadapter2.itembindings.OnItemBindClass;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class ItemBindingTest {
+
+    @Test
+    public void resolveDoesNotChangeState() {
+        ItemBinding<String> itemBinding = ItemBinding.of(new OnItemBind<String>() {
+            @Override
+            public void onItemBind(ItemBinding itemBinding, int position, String item) {
+                itemBinding.set(1, item.length());
+            }
+        });
+        itemBinding.onItemBind(0, "a");
+        ResolvedBinding resolvedBinding = itemBinding.resolve(1, "bb");
+
+        assertThat(resolvedBinding.variableId()).isEqualTo(1);
+        assertThat(resolvedBinding.layoutRes()).isEqualTo(2);
+        assertThat(itemBinding.layoutRes()).isEqualTo(1);
+    }
+
+    @Test
+    public void resolveWithoutCallback() {
+        ItemBinding<String> itemBinding = ItemBinding.of(1, 2);
+        ResolvedBinding resolvedBinding = itemBinding.resolve(0, "a");
+
+        assertThat(resolvedBinding.variableId()).isEqualTo(1);
+        assertThat(resolvedBinding.layoutRes()).isEqualTo(2);
+        assertThat(itemBinding.resolve(1, "b")).isSameAs(resolvedBinding);
+    }
+
+    @Test
+    public void sameStateIsInterned() {
+        ItemBinding<Object> itemBinding = ItemBinding.of(new OnItemBindClass<>()
+                .map(String.class, 1, 2)
+                .map(Integer.class, 1, 3));
+
+        List<ResolvedBinding> resolved = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            resolved.add(itemBinding.resolve(2 * i, "a"));
+            resolved.add(itemBinding.resolve(2 * i + 1, i));
+        }
+
+        for (int i = 0; i < resolved.size(); i++) {
+            assertThat(resolved.get(i)).isSameAs(resolved.get(i % 2));
+        }
+        assertThat(resolved.get(0)).isNotEqualTo(resolved.get(1));
+    }
+
+    @Test
+    public void resolvesOnManyThreads() throws InterruptedException {
+        final ItemBinding<Object> itemBinding = ItemBinding.of(new OnItemBindClass<>()
+                .map(String.class, 1, 2)
+                .map(Integer.class, 1, 3));
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final ResolvedBinding[] first = new ResolvedBinding[2];
+        first[0] = itemBinding.resolve(0, "a");
+        first[1] = itemBinding.resolve(1, 1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; i < 10000; i++) {
+                            Object item = i % 3 == 0 ? (Object) "a" : (Object) i;
+                            ResolvedBinding resolvedBinding = itemBinding.resolve(i, item);
+                            assertThat(resolvedBinding).isSameAs(item instanceof String ? first[0] : first[1]);
+                        }
+                    } catch (Throwable e) {
+                        error.set(e);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(error.get()).isNull();
+    }
+
+    @Test
+    public void resolvedItemBindingCanBeCollected() throws InterruptedException {
+        ViewModel viewModel = new ViewModel();
+        viewModel.itemBinding.resolve(0, "a");
+        WeakReference<ItemBinding<String>> ref = new WeakReference<>(viewModel.itemBinding);
+        viewModel = null;
+
+        for (int i = 0; i < 100 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertThat(ref.get()).isNull();
+    }
+
+    // Like a typical view model, the callback and the item binding reference each other.
+    static class ViewModel {
+        final ItemBinding<String> itemBinding = ItemBinding.of(new OnItemBind<String>() {
+            @Override
+            public void onItemBind(ItemBinding itemBinding, int position, String item) {
+                itemBinding.set(1, layoutOf(item));
+            }
+        });
+
+        int layoutOf(String item) {
+            return item.length();
+        }
+    }
+}
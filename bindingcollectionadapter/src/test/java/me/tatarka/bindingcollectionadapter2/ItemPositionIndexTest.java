@@ -0,0 +1,116 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class ItemPositionIndexTest {
+
+    @Test
+    public void findsItemsByIdentity() {
+        String a = "a";
+        String b = "b";
+        ItemPositionIndex index = new ItemPositionIndex();
+        index.setItems(Arrays.asList(a, b));
+
+        assertThat(index.indexOf(b)).isEqualTo(1);
+        assertThat(index.indexOf(a)).isEqualTo(0);
+        assertThat(index.indexOf(new String("a"))).isEqualTo(-1);
+    }
+
+    @Test
+    public void findsFirstPositionOfDuplicate() {
+        String a = "a";
+        ItemPositionIndex index = new ItemPositionIndex();
+        index.setItems(Arrays.asList("b", a, a));
+
+        assertThat(index.indexOf(a)).isEqualTo(1);
+    }
+
+    @Test
+    public void followsInsertAndRemove() {
+        String a = "a";
+        String b = "b";
+        String c = "c";
+        List<String> items = new ArrayList<>(Arrays.asList(a, b));
+        ItemPositionIndex index = new ItemPositionIndex();
+        index.setItems(items);
+        index.indexOf(b);
+
+        items.add(0, c);
+        index.invalidateFrom(0);
+
+        assertThat(index.indexOf(b)).isEqualTo(2);
+        assertThat(index.indexOf(c)).isEqualTo(0);
+
+        items.remove(1);
+        index.invalidateFrom(1);
+
+        assertThat(index.indexOf(a)).isEqualTo(-1);
+        assertThat(index.indexOf(b)).isEqualTo(1);
+    }
+
+    @Test
+    public void followsChange() {
+        String a = "a";
+        String b = "b";
+        List<String> items = new ArrayList<>(Arrays.asList(a, "x"));
+        ItemPositionIndex index = new ItemPositionIndex();
+        index.setItems(items);
+        index.indexOf("x");
+
+        items.set(0, b);
+        index.onItemRangeChanged(0, 1);
+
+        assertThat(index.indexOf(a)).isEqualTo(-1);
+        assertThat(index.indexOf(b)).isEqualTo(0);
+    }
+
+    @Test
+    public void findsDuplicateAfterFirstPositionIsChanged() {
+        String a = "a";
+        String b = "b";
+        List<String> items = new ArrayList<>(Arrays.asList(a, "x", a, "y"));
+        ItemPositionIndex index = new ItemPositionIndex();
+        index.setItems(items);
+        index.indexOf("y");
+
+        items.set(0, b);
+        index.onItemRangeChanged(0, 1);
+
+        assertThat(index.indexOf(a)).isEqualTo(2);
+        assertThat(index.indexOf(b)).isEqualTo(0);
+        assertThat(index.indexOf("y")).isEqualTo(3);
+
+        items.set(2, b);
+        index.onItemRangeChanged(2, 1);
+
+        assertThat(index.indexOf(a)).isEqualTo(-1);
+        assertThat(index.indexOf(b)).isEqualTo(0);
+    }
+
+    @Test
+    public void followsMove() {
+        String a = "a";
+        String b = "b";
+        String c = "c";
+        List<String> items = new ArrayList<>(Arrays.asList(a, b, c));
+        ItemPositionIndex index = new ItemPositionIndex();
+        index.setItems(items);
+        index.indexOf(c);
+
+        items.add(0, items.remove(2));
+        index.invalidateFrom(0);
+
+        assertThat(index.indexOf(c)).isEqualTo(0);
+        assertThat(index.indexOf(a)).isEqualTo(1);
+        assertThat(index.indexOf(b)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,47 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+@RunWith(JUnit4.class)
+public class ItemViewTypesTest {
+
+    @Test
+    public void sameBindingGetsSameViewType() {
+        int viewType = ItemViewTypes.viewTypeOf(0x7f040001, 1);
+
+        assertThat(ItemViewTypes.viewTypeOf(0x7f040001, 1)).isEqualTo(viewType);
+        assertThat(ItemViewTypes.layoutResOf(viewType)).isEqualTo(0x7f040001);
+        assertThat(ItemViewTypes.variableIdOf(viewType)).isEqualTo(1);
+    }
+
+    @Test
+    public void differentVariableGetsDifferentViewType() {
+        int viewType1 = ItemViewTypes.viewTypeOf(0x7f040002, 1);
+        int viewType2 = ItemViewTypes.viewTypeOf(0x7f040002, 2);
+
+        assertThat(viewType1).isNotEqualTo(viewType2);
+        assertThat(ItemViewTypes.layoutResOf(viewType2)).isEqualTo(0x7f040002);
+    }
+
+    @Test
+    public void viewTypesAreCompact() {
+        for (int i = 0; i < 100; i++) {
+            assertThat(ItemViewTypes.viewTypeOf(0x7f050000 + i, 1)).isLessThan(1000);
+        }
+    }
+
+    @Test
+    public void unknownViewTypeThrows() {
+        try {
+            ItemViewTypes.layoutResOf(Integer.MAX_VALUE);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+@RunWith(JUnit4.class)
+public class LayoutViewTypesTest {
+
+    @Test
+    public void viewTypesAreHandedOutInOrder() {
+        LayoutViewTypes viewTypes = new LayoutViewTypes(3);
+
+        assertThat(viewTypes.viewTypeOf(0x7f040003)).isEqualTo(0);
+        assertThat(viewTypes.viewTypeOf(0x7f040001)).isEqualTo(1);
+        assertThat(viewTypes.viewTypeOf(0x7f040002)).isEqualTo(2);
+        assertThat(viewTypes.size()).isEqualTo(3);
+        assertThat(viewTypes.layoutOf(0)).isEqualTo(0x7f040003);
+        assertThat(viewTypes.layoutOf(1)).isEqualTo(0x7f040001);
+        assertThat(viewTypes.layoutOf(2)).isEqualTo(0x7f040002);
+    }
+
+    @Test
+    public void mappingIsStableAcrossCalls() {
+        LayoutViewTypes viewTypes = new LayoutViewTypes(2);
+        viewTypes.viewTypeOf(0x7f040001);
+        viewTypes.viewTypeOf(0x7f040002);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(viewTypes.viewTypeOf(0x7f040002)).isEqualTo(1);
+            assertThat(viewTypes.viewTypeOf(0x7f040001)).isEqualTo(0);
+        }
+        assertThat(viewTypes.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void repeatedAndAlternatingLookupsAgree() {
+        LayoutViewTypes viewTypes = new LayoutViewTypes(2);
+
+        // The first repeated lookup is answered by the last lookup, the others by the table.
+        assertThat(viewTypes.viewTypeOf(0x7f040001)).isEqualTo(0);
+        assertThat(viewTypes.viewTypeOf(0x7f040001)).isEqualTo(0);
+        assertThat(viewTypes.viewTypeOf(0x7f040002)).isEqualTo(1);
+        assertThat(viewTypes.viewTypeOf(0x7f040002)).isEqualTo(1);
+        assertThat(viewTypes.viewTypeOf(0x7f040001)).isEqualTo(0);
+        assertThat(viewTypes.viewTypeOf(0x7f040002)).isEqualTo(1);
+    }
+
+    @Test
+    public void manyLayoutsGetDistinctViewTypes() {
+        LayoutViewTypes viewTypes = new LayoutViewTypes(100);
+        for (int i = 0; i < 100; i++) {
+            assertThat(viewTypes.viewTypeOf(0x7f040000 + i * 16)).isEqualTo(i);
+        }
+        for (int i = 99; i >= 0; i--) {
+            assertThat(viewTypes.viewTypeOf(0x7f040000 + i * 16)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    public void moreLayoutsThanCountThrows() {
+        LayoutViewTypes viewTypes = new LayoutViewTypes(2);
+        viewTypes.viewTypeOf(0x7f040001);
+        viewTypes.viewTypeOf(0x7f040002);
+
+        try {
+            viewTypes.viewTypeOf(0x7f040003);
+            fail();
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage()).contains("itemTypeCount (2)");
+        }
+        assertThat(viewTypes.viewTypeOf(0x7f040001)).isEqualTo(0);
+    }
+}
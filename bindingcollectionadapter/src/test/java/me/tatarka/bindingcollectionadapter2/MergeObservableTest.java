@@ -7,15 +7,20 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import me.tatarka.bindingcollectionadapter2.collections.MergeObservableList;
+import me.tatarka.bindingcollectionadapter2.collections.PayloadOnListChangedCallback;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.withSettings;
 
 @RunWith(JUnit4.class)
 @SuppressWarnings("unchecked")
@@ -188,4 +193,133 @@ public class MergeObservableTest {
         assertThat(list).isEmpty();
         verify(callback).onItemRangeRemoved(list, 0, 2);
     }
+
+    @Test
+    public void removingListInTheMiddleShiftsFollowingLists() {
+        MergeObservableList<String> list = new MergeObservableList<>();
+        ObservableList<String> first = new ObservableArrayList<>();
+        first.addAll(Arrays.asList("test1", "test2"));
+        ObservableList<String> second = new ObservableArrayList<>();
+        second.addAll(Arrays.asList("test3", "test4"));
+        ObservableList<String> third = new ObservableArrayList<>();
+        third.addAll(Arrays.asList("test5", "test6"));
+        list.insertList(first);
+        list.insertList(second);
+        list.insertList(third);
+        ObservableList.OnListChangedCallback callback = mock(ObservableList.OnListChangedCallback.class);
+        list.addOnListChangedCallback(callback);
+        list.removeList(second);
+        third.add("test7");
+
+        assertThat(list)
+                .hasSize(5)
+                .containsExactly("test1", "test2", "test5", "test6", "test7");
+        assertThat(list.mergeToBackingIndex(third, 2)).isEqualTo(4);
+        verify(callback).onItemRangeRemoved(list, 2, 2);
+        verify(callback).onItemRangeInserted(list, 4, 1);
+    }
+
+    @Test
+    public void manySectionsResolveToCorrectItems() {
+        MergeObservableList<String> list = new MergeObservableList<>();
+        List<ObservableList<String>> sections = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            ObservableList<String> section = new ObservableArrayList<>();
+            for (int j = 0; j < i % 4; j++) {
+                section.add(i + ":" + j);
+            }
+            sections.add(section);
+            list.insertList(section);
+            list.insertItem("item" + i);
+        }
+        sections.get(10).add("10:extra");
+        sections.get(25).clear();
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < sections.size(); i++) {
+            expected.addAll(sections.get(i));
+            expected.add("item" + i);
+        }
+        assertThat(list).hasSize(expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(list.get(i)).isEqualTo(expected.get(i));
+        }
+    }
+
+    @Test
+    public void interleavedInsertsAndRemovesKeepBackingListsIndexed() {
+        MergeObservableList<String> list = new MergeObservableList<>();
+        List<ObservableList<String>> sections = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ObservableList<String> section = new ObservableArrayList<>();
+            section.add(i + ":0");
+            sections.add(section);
+            list.insertList(section);
+        }
+        list.insertItem("item");
+
+        list.removeList(sections.remove(2));
+        ObservableList<String> inserted = new ObservableArrayList<>();
+        inserted.add("6:0");
+        sections.add(inserted);
+        list.insertList(inserted);
+        list.removeList(sections.remove(0));
+        list.removeItem("item");
+        list.removeList(sections.remove(sections.size() - 1));
+        list.removeList(sections.remove(1));
+
+        for (int i = 0; i < sections.size(); i++) {
+            sections.get(i).add("extra" + i);
+        }
+        List<String> expected = new ArrayList<>();
+        int offset = 0;
+        for (ObservableList<String> section : sections) {
+            assertThat(list.mergeToBackingIndex(section, 0)).isEqualTo(offset);
+            expected.addAll(section);
+            offset += section.size();
+        }
+        assertThat(list).hasSize(expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(list.get(i)).isEqualTo(expected.get(i));
+        }
+        assertThat(list.removeList(inserted)).isFalse();
+    }
+
+    @Test
+    public void insertingListTwiceThrowsAndKeepsTrackingIt() {
+        MergeObservableList<String> list = new MergeObservableList<>();
+        ObservableList<String> items = new ObservableArrayList<>();
+        items.add("test1");
+        list.insertList(items);
+        list.insertItem("test2");
+        try {
+            list.insertList(items);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+        items.add("test3");
+
+        assertThat(list).containsExactly("test1", "test3", "test2");
+        assertThat(list.mergeToBackingIndex(items, 1)).isEqualTo(1);
+    }
+
+    @Test
+    public void changingItemInNestedMergeListWithoutPayloadNotifiesPlainChange() {
+        MergeObservableList<String> list = new MergeObservableList<>();
+        ObservableList.OnListChangedCallback callback = mock(ObservableList.OnListChangedCallback.class, withSettings().extraInterfaces(PayloadOnListChangedCallback.class));
+        list.insertItem("test1");
+        MergeObservableList<String> backingList = new MergeObservableList<>();
+        backingList.insertItem("test2");
+        list.insertList(backingList);
+        list.addOnListChangedCallback(callback);
+        ObservableList<String> items = new ObservableArrayList<>();
+        items.add("test3");
+        backingList.insertList(items);
+        items.set(0, "test4");
+
+        verify(callback).onItemRangeInserted(list, 2, 1);
+        verify(callback).onItemRangeChanged(list, 2, 1);
+        verifyNoMoreInteractions(callback);
+    }
 }
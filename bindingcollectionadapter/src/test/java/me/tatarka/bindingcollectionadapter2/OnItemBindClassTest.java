@@ -83,6 +83,29 @@ public class OnItemBindClassTest {
         assertThat(itemBinding.layoutRes()).isEqualTo(5);
     }
 
+    @Test
+    public void remappingClassReplacesCachedSelection() {
+        OnItemBindClass<Object> onItemBind = new OnItemBindClass<>()
+                .map(A.class, 0, 1);
+        ItemBinding<Object> itemBinding = ItemBinding.of(onItemBind);
+        itemBinding.onItemBind(0, new B());
+
+        assertThat(itemBinding.variableId()).isEqualTo(0);
+        assertThat(itemBinding.layoutRes()).isEqualTo(1);
+
+        onItemBind.map(A.class, 2, 3);
+        itemBinding.onItemBind(0, new B());
+
+        assertThat(itemBinding.variableId()).isEqualTo(2);
+        assertThat(itemBinding.layoutRes()).isEqualTo(3);
+
+        onItemBind.map(B.class, 4, 5);
+        itemBinding.onItemBind(0, new B());
+
+        assertThat(itemBinding.variableId()).isEqualTo(2);
+        assertThat(itemBinding.layoutRes()).isEqualTo(3);
+    }
+
     private static class A {
     }
 
@@ -0,0 +1,88 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import android.databinding.ViewDataBinding;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(JUnit4.class)
+public class RebindSkipperTest {
+
+    private ViewDataBinding binding;
+    private ResolvedBinding resolvedBinding;
+
+    @Before
+    public void setup() {
+        final Object[] tag = new Object[1];
+        View root = mock(View.class);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                tag[0] = invocation.getArguments()[1];
+                return null;
+            }
+        }).when(root).setTag(anyInt(), any());
+        when(root.getTag(anyInt())).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                return tag[0];
+            }
+        });
+        binding = mock(ViewDataBinding.class);
+        when(binding.getRoot()).thenReturn(root);
+        resolvedBinding = ItemBinding.<String>of(1, 2).resolve(0, "a");
+    }
+
+    @Test
+    public void skipsSameItem() {
+        RebindSkipper skipper = new RebindSkipper();
+        String item = "a";
+
+        assertThat(skipper.skip(binding, resolvedBinding, item)).isFalse();
+        assertThat(skipper.skip(binding, resolvedBinding, item)).isTrue();
+        assertThat(skipper.skip(binding, resolvedBinding, item)).isTrue();
+        assertThat(skipper.bindCount()).isEqualTo(1);
+        assertThat(skipper.skipCount()).isEqualTo(2);
+        assertThat(skipper.skipRatio()).isEqualTo(2f / 3);
+    }
+
+    @Test
+    public void bindsDifferentItem() {
+        RebindSkipper skipper = new RebindSkipper();
+
+        assertThat(skipper.skip(binding, resolvedBinding, "a")).isFalse();
+        assertThat(skipper.skip(binding, resolvedBinding, new String("a"))).isFalse();
+        assertThat(skipper.skipCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void bindsDifferentResolvedBinding() {
+        RebindSkipper skipper = new RebindSkipper();
+        String item = "a";
+
+        assertThat(skipper.skip(binding, resolvedBinding, item)).isFalse();
+        assertThat(skipper.skip(binding, ItemBinding.<String>of(1, 3).resolve(0, item), item)).isFalse();
+    }
+
+    @Test
+    public void bindsWithPendingBindings() {
+        RebindSkipper skipper = new RebindSkipper();
+        String item = "a";
+        skipper.skip(binding, resolvedBinding, item);
+        when(binding.hasPendingBindings()).thenReturn(true);
+
+        assertThat(skipper.skip(binding, resolvedBinding, item)).isFalse();
+    }
+}
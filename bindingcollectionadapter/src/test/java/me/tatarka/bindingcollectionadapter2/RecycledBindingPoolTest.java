@@ -0,0 +1,113 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import android.databinding.ViewDataBinding;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayDeque;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@RunWith(JUnit4.class)
+public class RecycledBindingPoolTest {
+
+    @Test
+    public void pagingInflatesBoundedNumberOfPages() {
+        RecycledBindingPool pool = new RecycledBindingPool(2);
+        Pager pager = new Pager(pool, 1);
+
+        for (int i = 0; i < 100; i++) {
+            pager.setCurrentItem(i, i % 2 == 0 ? 1 : 2);
+        }
+
+        // The current page and one on each side for both layouts, and a page being swapped in.
+        assertThat(pager.inflateCount).isLessThanOrEqualTo(8);
+    }
+
+    @Test
+    public void withoutPoolPagingInflatesEveryPage() {
+        RecycledBindingPool pool = new RecycledBindingPool(0);
+        Pager pager = new Pager(pool, 1);
+
+        for (int i = 0; i < 100; i++) {
+            pager.setCurrentItem(i, 1);
+        }
+
+        assertThat(pager.inflateCount).isEqualTo(101);
+    }
+
+    @Test
+    public void keepsBindingsByLayout() {
+        RecycledBindingPool pool = new RecycledBindingPool(2);
+        ViewDataBinding binding = mock(ViewDataBinding.class);
+
+        assertThat(pool.put(1, binding)).isTrue();
+
+        assertThat(pool.get(2)).isNull();
+        assertThat(pool.get(1)).isSameAs(binding);
+        assertThat(pool.get(1)).isNull();
+    }
+
+    @Test
+    public void dropsBindingsOverMax() {
+        RecycledBindingPool pool = new RecycledBindingPool(2);
+
+        assertThat(pool.put(1, mock(ViewDataBinding.class))).isTrue();
+        assertThat(pool.put(1, mock(ViewDataBinding.class))).isTrue();
+        assertThat(pool.put(1, mock(ViewDataBinding.class))).isFalse();
+        assertThat(pool.size(1)).isEqualTo(2);
+
+        pool.setMaxPerLayout(1);
+
+        assertThat(pool.size(1)).isEqualTo(1);
+    }
+
+    /**
+     * Instantiates and destroys pages the way a {@code ViewPager} with the given offscreen page
+     * limit does, recycling destroyed pages into the pool.
+     */
+    private static class Pager {
+        final RecycledBindingPool pool;
+        final int offscreenPageLimit;
+        final ArrayDeque<Page> pages = new ArrayDeque<>();
+        int inflateCount;
+
+        Pager(RecycledBindingPool pool, int offscreenPageLimit) {
+            this.pool = pool;
+            this.offscreenPageLimit = offscreenPageLimit;
+        }
+
+        void setCurrentItem(int position, int layoutRes) {
+            int first = position - offscreenPageLimit;
+            int last = position + offscreenPageLimit;
+            while (!pages.isEmpty() && pages.peekFirst().position < first) {
+                Page page = pages.pollFirst();
+                pool.put(page.layoutRes, page.binding);
+            }
+            int next = pages.isEmpty() ? Math.max(first, 0) : pages.peekLast().position + 1;
+            for (int i = next; i <= last; i++) {
+                ViewDataBinding binding = pool.get(layoutRes);
+                if (binding == null) {
+                    binding = mock(ViewDataBinding.class);
+                    inflateCount++;
+                }
+                pages.addLast(new Page(i, layoutRes, binding));
+            }
+        }
+    }
+
+    private static class Page {
+        final int position;
+        final int layoutRes;
+        final ViewDataBinding binding;
+
+        Page(int position, int layoutRes, ViewDataBinding binding) {
+            this.position = position;
+            this.layoutRes = layoutRes;
+            this.binding = binding;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package me.tatarka.bindingcollectionadapter2;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class ResolvedBindingCacheTest {
+
+    @Test
+    public void resolvesEachPositionOnce() {
+        CountingOnItemBind onItemBind = new CountingOnItemBind();
+        ItemBinding<String> itemBinding = ItemBinding.of(onItemBind);
+        List<String> items = Arrays.asList("a", "bb", "ccc");
+        ResolvedBindingCache cache = new ResolvedBindingCache();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(cache.get(itemBinding, items, 0).layoutRes()).isEqualTo(1);
+            assertThat(cache.get(itemBinding, items, 2).layoutRes()).isEqualTo(3);
+        }
+
+        assertThat(onItemBind.calls).isEqualTo(2);
+    }
+
+    @Test
+    public void resolvedBindingIsNotAffectedByLaterItems() {
+        ItemBinding<String> itemBinding = ItemBinding.of(new CountingOnItemBind());
+        List<String> items = Arrays.asList("a", "bb");
+        ResolvedBindingCache cache = new ResolvedBindingCache();
+
+        ResolvedBinding first = cache.get(itemBinding, items, 0);
+        ResolvedBinding second = cache.get(itemBinding, items, 1);
+
+        assertThat(first.layoutRes()).isEqualTo(1);
+        assertThat(second.layoutRes()).isEqualTo(2);
+    }
+
+    @Test
+    public void invalidatedPositionsAreResolvedAgain() {
+        CountingOnItemBind onItemBind = new CountingOnItemBind();
+        ItemBinding<String> itemBinding = ItemBinding.of(onItemBind);
+        List<String> items = Arrays.asList("a", "b", "c", "d");
+        ResolvedBindingCache cache = new ResolvedBindingCache();
+        for (int i = 0; i < items.size(); i++) {
+            cache.get(itemBinding, items, i);
+        }
+
+        cache.invalidate(1, 1);
+        cache.get(itemBinding, items, 0);
+        cache.get(itemBinding, items, 1);
+        assertThat(onItemBind.calls).isEqualTo(5);
+
+        cache.invalidateFrom(2);
+        for (int i = 0; i < items.size(); i++) {
+            cache.get(itemBinding, items, i);
+        }
+        assertThat(onItemBind.calls).isEqualTo(7);
+
+        cache.clear();
+        for (int i = 0; i < items.size(); i++) {
+            cache.get(itemBinding, items, i);
+        }
+        assertThat(onItemBind.calls).isEqualTo(11);
+    }
+
+    @Test
+    public void identicalStateSharesResolvedBinding() {
+        ItemBinding<String> itemBinding = ItemBinding.of(new CountingOnItemBind());
+        List<String> items = Arrays.asList("a", "b");
+        ResolvedBindingCache cache = new ResolvedBindingCache();
+
+        assertThat(cache.get(itemBinding, items, 1)).isSameAs(cache.get(itemBinding, items, 0));
+    }
+
+    @Test
+    public void changedLayoutIsResolved() {
+        ItemBinding<String> itemBinding = ItemBinding.of(1, 2);
+        List<String> items = Arrays.asList("a");
+        ResolvedBindingCache cache = new ResolvedBindingCache();
+
+        assertThat(cache.get(itemBinding, items, 0).layoutRes()).isEqualTo(2);
+
+        itemBinding.layoutRes(3);
+
+        assertThat(cache.get(itemBinding, items, 0).layoutRes()).isEqualTo(3);
+    }
+
+    static class CountingOnItemBind implements OnItemBind<String> {
+        int calls;
+
+        @Override
+        public void onItemBind(ItemBinding itemBinding, int position, String item) {
+            calls++;
+            itemBinding.set(1, item.length());
+        }
+    }
+}